@@ -2,19 +2,34 @@ package br.com.fiap.cp2_tasks;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class Cp2TasksApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(Cp2TasksApplication.class, args);
-		openSwaggerInBrowser();
+		var context = SpringApplication.run(Cp2TasksApplication.class, args);
+		var env = context.getEnvironment();
+
+		// Usado na geração do arquivo CDS e na medição de inicialização do build
+		if (env.getProperty("app.startup.exit-on-ready", Boolean.class, false)) {
+			System.exit(SpringApplication.exit(context));
+		}
+
+		if (env.getProperty("app.swagger.open-browser", Boolean.class, false)) {
+			openSwaggerInBrowser();
+		}
 	}
 
 	private static void openSwaggerInBrowser() {
         try {
-            // Abre o Swagger no navegador padrão
-            Runtime.getRuntime().exec("cmd /c start http://localhost:8080/swagger-ui.html");
+            // Abre o Swagger no navegador padrão (somente no Windows)
+            if (System.getProperty("os.name", "").startsWith("Windows")) {
+                Runtime.getRuntime().exec("cmd /c start http://localhost:8080/swagger-ui.html");
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -3,12 +3,18 @@ package br.com.fiap.cp2_tasks.config;
 import java.io.IOException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.cp2_tasks.exceptions.RestError;
+import br.com.fiap.cp2_tasks.models.User;
 import br.com.fiap.cp2_tasks.service.TokenService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -27,6 +33,9 @@ public class AuthorizationFilter extends OncePerRequestFilter {
     @Autowired
     TokenService tokenService;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -37,10 +46,19 @@ public class AuthorizationFilter extends OncePerRequestFilter {
         // Se houver um token
         if (token != null) {
             // Validar o token
-            var usuario = tokenService.validate(token);
+            User usuario;
+            try {
+                usuario = tokenService.validate(token);
+            } catch (ResponseStatusException e) {
+                // Usuário fora do cache e banco indisponível: a requisição é recusada (503)
+                response.setStatus(e.getStatusCode().value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), new RestError(e.getStatusCode().value(), e.getReason()));
+                return;
+            }
 
-            // Autenticar o usuário
-            Authentication auth = new UsernamePasswordAuthenticationToken(usuario.getUsername(), null, usuario.getAuthorities());
+            // Autenticar o usuário, mantendo a entidade como principal para identificar o dono das tarefas
+            Authentication auth = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
             SecurityContextHolder.getContext().setAuthentication(auth);
         }
 
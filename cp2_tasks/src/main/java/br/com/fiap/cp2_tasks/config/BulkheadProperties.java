@@ -0,0 +1,45 @@
+package br.com.fiap.cp2_tasks.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Propriedades do isolamento (bulkhead) e do disjuntor das leituras no banco.
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "api.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    /** Leituras simultâneas por compartimento (por exemplo, "tarefas" e "usuarios"). */
+    private Map<String, Integer> maxConcurrent = new LinkedHashMap<>();
+
+    /** Leituras simultâneas para compartimentos sem configuração própria. */
+    private int defaultMaxConcurrent = 5;
+
+    /** Tempo máximo de espera por uma vaga no compartimento. */
+    private long acquireTimeoutMs = 50;
+
+    /** Falhas (ou leituras lentas) seguidas que abrem o disjuntor. */
+    private int failureThreshold = 5;
+
+    /** Leituras mais demoradas que isso contam como falha. */
+    private long slowCallMs = 2_000;
+
+    /** Tempo em que o disjuntor fica aberto antes de permitir uma leitura de teste. */
+    private long openMs = 10_000;
+
+    /** Quantidade máxima de respostas guardadas por compartimento para uso como resposta desatualizada. */
+    private int staleMaxEntries = 10_000;
+
+    /** Idade máxima de uma resposta desatualizada. */
+    private long staleMaxAgeSeconds = 3_600;
+}
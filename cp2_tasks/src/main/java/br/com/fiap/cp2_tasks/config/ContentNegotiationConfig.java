@@ -0,0 +1,43 @@
+package br.com.fiap.cp2_tasks.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Configuração das representações negociadas pelo cabeçalho Accept.
+ * 
+ * <p>Além do HAL padrão, a API responde em JSON enxuto ({@value LeanJsonHttpMessageConverter#LEAN_JSON_VALUE})
+ * e em CBOR ({@code application/cbor}), cujo conversor é registrado pelo Spring MVC
+ * quando o jackson-dataformat-cbor está no classpath.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    /**
+     * Adiciona o conversor de JSON enxuto antes do conversor JSON genérico, que também aceita
+     * {@code application/*+json} e, se viesse antes, responderia no lugar dele.
+     *
+     * @param converters Os conversores já configurados.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        int index = 0;
+        while (index < converters.size() && converters.get(index).getClass() != MappingJackson2HttpMessageConverter.class) {
+            index++;
+        }
+        converters.add(index, new LeanJsonHttpMessageConverter(objectMapper));
+    }
+}
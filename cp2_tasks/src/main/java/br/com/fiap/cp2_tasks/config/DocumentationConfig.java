@@ -1,7 +1,10 @@
 package br.com.fiap.cp2_tasks.config;
 
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
@@ -44,4 +47,27 @@ public class DocumentationConfig {
                 )
             );
     }
+
+    /**
+     * No perfil de produção, adia a criação dos beans de documentação (springdoc e
+     * {@link #customOpenAPI()}) para o primeiro acesso ao Swagger, tirando-os da inicialização.
+     *
+     * @return O pós-processador que marca esses beans como lazy.
+     */
+    @Bean
+    @Profile("prod")
+    public static BeanFactoryPostProcessor lazyDocumentationBeans() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                var definition = beanFactory.getBeanDefinition(name);
+                String source = definition.getBeanClassName();
+                if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+                    source = annotated.getFactoryMethodMetadata().getDeclaringClassName();
+                }
+                if (source != null && (source.startsWith("org.springdoc.") || source.equals(DocumentationConfig.class.getName()))) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
 }
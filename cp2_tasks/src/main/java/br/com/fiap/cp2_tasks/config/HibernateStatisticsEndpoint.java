@@ -0,0 +1,103 @@
+package br.com.fiap.cp2_tasks.config;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Endpoint do Actuator ({@code /actuator/hibernate}) com as estatísticas do Hibernate.
+ * 
+ * <p>Mostra os totais da sessão (consultas, comandos preparados, cache de segundo nível e de consultas)
+ * e, para cada consulta, a quantidade de execuções, linhas e os tempos médio e máximo, ordenadas
+ * pelo tempo total. Requer {@code hibernate.generate_statistics=true}; uma escrita no endpoint zera
+ * os contadores.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Component
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    /** Quantidade máxima de consultas listadas. */
+    private static final int MAX_QUERIES = 50;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Um registro (record) com as estatísticas de uma consulta.
+     */
+    public record QueryStats(
+        String query,
+        long executions,
+        long rows,
+        long averageMs,
+        long maxMs,
+        long totalMs,
+        long cacheHits,
+        long cacheMisses
+    ) {}
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Statistics statistics = hibernateStatistics();
+        var summary = new LinkedHashMap<String, Object>();
+        summary.put("enabled", statistics.isStatisticsEnabled());
+        summary.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        summary.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        summary.put("queryExecutionMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        summary.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        summary.put("entityLoadCount", statistics.getEntityLoadCount());
+        summary.put("entityFetchCount", statistics.getEntityFetchCount());
+        summary.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+        summary.put("secondLevelCacheMissCount", statistics.getSecondLevelCacheMissCount());
+        summary.put("queryCacheHitCount", statistics.getQueryCacheHitCount());
+        summary.put("queryCacheMissCount", statistics.getQueryCacheMissCount());
+        summary.put("queries", queries(statistics));
+        return summary;
+    }
+
+    @WriteOperation
+    public void reset() {
+        hibernateStatistics().clear();
+    }
+
+    private List<QueryStats> queries(Statistics statistics) {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> toStats(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(QueryStats::totalMs).reversed())
+                .limit(MAX_QUERIES)
+                .toList();
+    }
+
+    private static QueryStats toStats(String query, QueryStatistics stats) {
+        return new QueryStats(
+            query,
+            stats.getExecutionCount(),
+            stats.getExecutionRowCount(),
+            stats.getExecutionAvgTime(),
+            stats.getExecutionMaxTime(),
+            stats.getExecutionTotalTime(),
+            stats.getCacheHitCount(),
+            stats.getCacheMissCount()
+        );
+    }
+
+    private Statistics hibernateStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
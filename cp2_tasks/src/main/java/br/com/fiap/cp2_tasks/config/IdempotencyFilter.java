@@ -0,0 +1,270 @@
+package br.com.fiap.cp2_tasks.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.cp2_tasks.exceptions.RestError;
+import br.com.fiap.cp2_tasks.service.IdempotencyStore;
+import br.com.fiap.cp2_tasks.service.IdempotencyStore.Entry;
+import br.com.fiap.cp2_tasks.service.IdempotencyStore.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtro que torna idempotentes os POSTs de criação que enviam o cabeçalho Idempotency-Key.
+ * 
+ * <p>A primeira requisição com a chave é executada e sua resposta de sucesso é guardada;
+ * repetições (inclusive simultâneas) recebem a mesma resposta sem executar de novo.
+ * A chave guarda também um hash do método e do corpo: reutilizá-la com outra requisição
+ * é recusado com 422, em vez de repetir a resposta da primeira.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private static final Set<String> PATHS = Set.of("/api/tasks", "/api/usuarios/cadastro");
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    IdempotencyStore store;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${api.idempotency.wait-timeout-ms:10000}")
+    long waitTimeoutMs;
+
+    @Value("${api.idempotency.max-body-bytes:65536}")
+    int maxBodyBytes;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+            || request.getHeader(IDEMPOTENCY_KEY) == null
+            || !PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key inválida");
+            return;
+        }
+
+        // O corpo é lido inteiro para o hash: acima do limite a requisição é recusada antes da leitura completa
+        byte[] body = request.getContentLengthLong() > maxBodyBytes
+            ? null
+            : request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body == null || body.length > maxBodyBytes) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Corpo da requisição muito grande");
+            return;
+        }
+
+        String key = getClient(request) + '|' + request.getRequestURI() + '|' + idempotencyKey;
+        var cached = new CachedBodyRequest(request, body);
+        String fingerprint = fingerprint(request.getMethod(), cached.body);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+
+        while (true) {
+            var mine = new Entry(new CompletableFuture<>(), fingerprint, System.nanoTime());
+            var entry = store.claim(key, mine);
+
+            if (entry == mine) {
+                execute(key, mine, cached, response, filterChain);
+                return;
+            }
+
+            if (!entry.fingerprint().equals(fingerprint)) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key já usada com outra requisição");
+                return;
+            }
+
+            var stored = await(entry, deadline);
+            if (stored == null && System.nanoTime() - deadline >= 0) {
+                writeError(response, HttpStatus.CONFLICT, "Requisição com a mesma Idempotency-Key em processamento");
+                return;
+            }
+            if (stored != null) {
+                replay(stored, response);
+                return;
+            }
+            // A requisição original falhou: tenta assumir a chave
+        }
+    }
+
+    /**
+     * Executa a requisição dona da chave e guarda a resposta em caso de sucesso.
+     */
+    private void execute(String key, Entry entry, HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        var wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } catch (ServletException | IOException | RuntimeException e) {
+            store.abandon(key, entry);
+            throw e;
+        }
+
+        int status = wrapper.getStatus();
+        if (status >= 200 && status < 300) {
+            var headers = new LinkedHashMap<String, String>();
+            copyHeader(wrapper, headers, HttpHeaders.LOCATION);
+            copyHeader(wrapper, headers, HttpHeaders.CONTENT_TYPE);
+            store.complete(entry, new StoredResponse(status, headers, wrapper.getContentAsByteArray()));
+        } else {
+            store.abandon(key, entry);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private StoredResponse await(Entry entry, long deadline) throws ServletException {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return entry.response().get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(e);
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        stored.headers().forEach(response::setHeader);
+        response.setHeader("Idempotent-Replayed", "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void copyHeader(HttpServletResponse response, LinkedHashMap<String, String> headers, String name) {
+        String value = name.equals(HttpHeaders.CONTENT_TYPE) ? response.getContentType() : response.getHeader(name);
+        if (value != null) headers.put(name, value);
+    }
+
+    /**
+     * Calcula o hash SHA-256 do método e do corpo, que identifica a requisição associada à chave.
+     */
+    private static String fingerprint(String method, byte[] body) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(method.getBytes(StandardCharsets.US_ASCII));
+            digest.update((byte) '\n');
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new RestError(status.value(), message));
+    }
+
+    /**
+     * Identifica o cliente para que chaves iguais de usuários diferentes não colidam.
+     *
+     * @param request A solicitação HTTP.
+     * @return O nome do usuário autenticado ou, sem autenticação, o IP.
+     */
+    private String getClient(HttpServletRequest request) {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "u:" + auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Uma requisição com o corpo já lido, para calcular o hash antes de o controlador consumi-lo.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            var in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            var charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.fiap.cp2_tasks.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.cp2_tasks.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtro que limita a taxa de requisições por IP antes da autenticação.
+ * 
+ * <p>Fica antes do {@link AuthorizationFilter}, de modo que a verificação do JWT e a leitura do
+ * usuário no banco só acontecem dentro do limite, e requisições com tokens inválidos também
+ * consomem fichas. O limite por usuário continua no {@link RateLimitFilter}.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Component
+public class IpRateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    RateLimiter rateLimiter;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // O IP já vem do X-Forwarded-For dos proxies confiáveis, aplicado pelo Tomcat
+        long waitNanos = rateLimiter.tryAcquire(rateLimiter.ipRule(), "ip:" + request.getRemoteAddr());
+        if (waitNanos > 0) {
+            RateLimitFilter.reject(response, waitNanos, objectMapper);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
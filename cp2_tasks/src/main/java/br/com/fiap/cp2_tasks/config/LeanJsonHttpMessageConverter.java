@@ -0,0 +1,110 @@
+package br.com.fiap.cp2_tasks.config;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.cp2_tasks.models.BatchModel;
+import br.com.fiap.cp2_tasks.models.LeanPage;
+
+/**
+ * Conversor que escreve as respostas em JSON enxuto, removendo os links HATEOAS.
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+public class LeanJsonHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public static final String LEAN_JSON_VALUE = "application/vnd.cp2tasks.lean+json";
+
+    public static final MediaType LEAN_JSON = MediaType.parseMediaType(LEAN_JSON_VALUE);
+
+    public LeanJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper, LEAN_JSON);
+    }
+
+    /**
+     * O formato enxuto é apenas de saída; requisições continuam em JSON.
+     */
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    /**
+     * Só escreve modelos HATEOAS e apenas quando o cliente pede o formato enxuto explicitamente;
+     * sem essa restrição ele seria oferecido como padrão no lugar do HAL. Os demais objetos
+     * (como erros) seguem com o conversor JSON padrão.
+     */
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return isLeanRequest(clazz, mediaType) && super.canWrite(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isLeanRequest(clazz, mediaType) && super.canWrite(type, clazz, mediaType);
+    }
+
+    private boolean isLeanRequest(Class<?> clazz, MediaType mediaType) {
+        return mediaType != null && LEAN_JSON.isCompatibleWith(mediaType) && !mediaType.isWildcardSubtype()
+            && RepresentationModel.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        var lean = unwrap(object);
+        super.writeInternal(lean, null, outputMessage);
+    }
+
+    /**
+     * Remove os links de um modelo HATEOAS, mantendo apenas o conteúdo.
+     *
+     * @param object O objeto a ser escrito.
+     * @return O conteúdo sem links, ou o próprio objeto se não for um modelo HATEOAS.
+     */
+    private Object unwrap(Object object) {
+        if (object instanceof EntityModel<?> model) {
+            // O PagedResourcesAssembler envolve cada EntityModel em outro EntityModel
+            return unwrap(model.getContent());
+        }
+        if (object instanceof PagedModel<?> paged) {
+            return new LeanPage(unwrapAll(paged.getContent()), paged.getMetadata());
+        }
+        if (object instanceof BatchModel<?> batch) {
+            return Map.of("content", unwrapAll(batch.getContent()), "missing", batch.getMissing());
+        }
+        if (object instanceof CollectionModel<?> collection) {
+            return unwrapAll(collection.getContent());
+        }
+        return object;
+    }
+
+    private List<Object> unwrapAll(Collection<?> content) {
+        List<Object> lean = new ArrayList<>(content.size());
+        for (Object item : content) {
+            lean.add(unwrap(item));
+        }
+        return lean;
+    }
+}
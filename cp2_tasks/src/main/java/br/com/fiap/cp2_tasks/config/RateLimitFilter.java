@@ -0,0 +1,88 @@
+package br.com.fiap.cp2_tasks.config;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.cp2_tasks.exceptions.RestError;
+import br.com.fiap.cp2_tasks.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtro que limita a taxa de requisições por usuário autenticado ou, nas rotas públicas, por IP.
+ * 
+ * <p>Roda depois da autenticação, para contar por usuário; o {@link IpRateLimitFilter} limita
+ * antes dela, por IP, para que tokens inválidos também sejam contados.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    RateLimiter rateLimiter;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        var rule = rateLimiter.resolve(request.getMethod(), request.getRequestURI());
+        long waitNanos = rateLimiter.tryAcquire(rule, getClient(request));
+
+        if (waitNanos > 0) {
+            reject(response, waitNanos, objectMapper);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Responde 429 com o cabeçalho Retry-After.
+     *
+     * @param response A resposta HTTP.
+     * @param waitNanos Os nanossegundos até haver ficha disponível.
+     * @param objectMapper O conversor usado no corpo do erro.
+     * @throws IOException Se ocorrer um erro ao escrever a resposta.
+     */
+    static void reject(HttpServletResponse response, long waitNanos, ObjectMapper objectMapper) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new RestError(429, "Muitas requisições, tente novamente mais tarde"));
+    }
+
+    /**
+     * Identifica o cliente pelo assunto do JWT ou, sem autenticação, pelo IP. Atrás do balanceador,
+     * o IP vem do X-Forwarded-For enviado pelos proxies confiáveis
+     * ({@code server.tomcat.remoteip.internal-proxies}), já aplicado pelo Tomcat ao {@code getRemoteAddr()}.
+     *
+     * @param request A solicitação HTTP.
+     * @return O identificador do cliente.
+     */
+    private String getClient(HttpServletRequest request) {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "u:" + auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
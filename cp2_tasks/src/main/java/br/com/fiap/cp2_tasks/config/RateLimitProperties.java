@@ -0,0 +1,49 @@
+package br.com.fiap.cp2_tasks.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Propriedades do limitador de requisições por usuário.
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "api.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Quantidade máxima de baldes mantidos em memória. */
+    private int maxEntries = 100_000;
+
+    /** Rajada permitida para rotas sem configuração própria. */
+    private int defaultBurst = 50;
+
+    /** Requisições por minuto para rotas sem configuração própria. */
+    private int defaultPerMinute = 600;
+
+    /** Rajada permitida por IP em todas as rotas, verificada antes da autenticação. */
+    private int ipBurst = 100;
+
+    /** Requisições por minuto por IP em todas as rotas, verificadas antes da autenticação. */
+    private int ipPerMinute = 1_200;
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    /**
+     * Limite específico de uma rota, identificada pelo método e caminho exato.
+     */
+    @Data
+    public static class Route {
+        private String method;
+        private String path;
+        private int burst;
+        private int perMinute;
+    }
+}
@@ -0,0 +1,192 @@
+package br.com.fiap.cp2_tasks.config;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Os tempos de cada fase de uma requisição, usados no cabeçalho Server-Timing.
+ * 
+ * <p>Cada thread reaproveita a mesma instância, com vetores alocados uma única vez;
+ * fora de uma requisição (por exemplo, em threads de tarefas agendadas) nada é registrado.
+ * As fases podem se sobrepor: a consulta do usuário no token também conta como tempo de banco.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+public final class RequestTiming {
+
+    /**
+     * As fases medidas, na ordem em que aparecem no cabeçalho.
+     */
+    public enum Phase {
+        JWT("jwt"), USER("user"), DB("db"), LINKS("links");
+
+        final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    /** Quantidade máxima de comandos SQL guardados por requisição (os demais são apenas contados). */
+    static final int MAX_STATEMENTS = 64;
+
+    private static final ThreadLocal<RequestTiming> CURRENT = ThreadLocal.withInitial(RequestTiming::new);
+
+    private final long[] phaseNanos = new long[Phase.values().length];
+
+    private final String[] sql = new String[MAX_STATEMENTS];
+
+    private final long[] sqlNanos = new long[MAX_STATEMENTS];
+
+    private int statements;
+
+    private String pendingSql;
+
+    private long statementStart;
+
+    private long startNanos;
+
+    private long handlerEndNanos;
+
+    private boolean active;
+
+    private RequestTiming() {}
+
+    /**
+     * Registra o tempo decorrido desde {@code startNanos} na fase indicada.
+     *
+     * @param phase A fase medida.
+     * @param startNanos O instante inicial, obtido com {@link System#nanoTime()}.
+     */
+    public static void record(Phase phase, long startNanos) {
+        var timing = CURRENT.get();
+        if (timing.active) {
+            timing.phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+        }
+    }
+
+    /**
+     * Executa o trabalho informado e registra sua duração na fase indicada.
+     *
+     * @param phase A fase medida.
+     * @param work O trabalho a ser executado.
+     * @return O resultado do trabalho.
+     */
+    public static <T> T time(Phase phase, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(phase, start);
+        }
+    }
+
+    static RequestTiming begin() {
+        var timing = CURRENT.get();
+        Arrays.fill(timing.phaseNanos, 0);
+        Arrays.fill(timing.sql, null);
+        timing.statements = 0;
+        timing.pendingSql = null;
+        timing.handlerEndNanos = 0;
+        timing.startNanos = System.nanoTime();
+        timing.active = true;
+        return timing;
+    }
+
+    static RequestTiming current() {
+        var timing = CURRENT.get();
+        return timing.active ? timing : null;
+    }
+
+    void end() {
+        active = false;
+        Arrays.fill(sql, null);
+        pendingSql = null;
+    }
+
+    void statementPrepared(String text) {
+        pendingSql = text;
+    }
+
+    void statementStarted() {
+        statementStart = System.nanoTime();
+    }
+
+    void statementEnded() {
+        long elapsed = System.nanoTime() - statementStart;
+        phaseNanos[Phase.DB.ordinal()] += elapsed;
+        if (statements < MAX_STATEMENTS) {
+            sql[statements] = pendingSql;
+            sqlNanos[statements] = elapsed;
+        }
+        statements++;
+    }
+
+    /**
+     * Marca o fim do processamento no controlador, antes da serialização da resposta.
+     */
+    void markHandlerEnd() {
+        if (handlerEndNanos == 0) handlerEndNanos = System.nanoTime();
+    }
+
+    long startNanos() {
+        return startNanos;
+    }
+
+    long handlerEndNanos() {
+        return handlerEndNanos;
+    }
+
+    long phaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    /**
+     * Monta o valor do cabeçalho Server-Timing, com as durações em milissegundos.
+     *
+     * @return O valor do cabeçalho.
+     */
+    String header() {
+        long end = handlerEndNanos != 0 ? handlerEndNanos : System.nanoTime();
+        var header = new StringBuilder(128);
+        for (Phase phase : Phase.values()) {
+            long nanos = phaseNanos[phase.ordinal()];
+            if (nanos == 0) continue;
+            appendDuration(header.append(phase.metric).append(";dur="), nanos);
+            if (phase == Phase.DB) header.append(";desc=\"").append(statements).append(" sql\"");
+            header.append(", ");
+        }
+        appendDuration(header.append("app;dur="), end - startNanos);
+        return header.toString();
+    }
+
+    /**
+     * Descreve os comandos SQL executados, com suas durações em milissegundos.
+     *
+     * @return A lista dos comandos, separados por ponto e vírgula.
+     */
+    String describeStatements() {
+        var description = new StringBuilder();
+        for (int i = 0; i < Math.min(statements, MAX_STATEMENTS); i++) {
+            if (i > 0) description.append("; ");
+            appendDuration(description.append('['), sqlNanos[i]).append("ms] ").append(sql[i]);
+        }
+        if (statements > MAX_STATEMENTS) {
+            description.append("; ... +").append(statements - MAX_STATEMENTS);
+        }
+        return description.toString();
+    }
+
+    static StringBuilder appendDuration(StringBuilder builder, long nanos) {
+        long micros = nanos / 1_000;
+        builder.append(micros / 1_000).append('.');
+        long fraction = (micros % 1_000) / 10;
+        if (fraction < 10) builder.append('0');
+        return builder.append(fraction);
+    }
+}
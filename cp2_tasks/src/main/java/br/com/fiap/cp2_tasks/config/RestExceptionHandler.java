@@ -27,7 +27,7 @@ public class RestExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<RestError> argumentExceptionHandler() {
-        log.error("Erro de argumento inválido");
+        log.info("evento=erro status={} motivo={}", 400, "campos-invalidos");
         return ResponseEntity.badRequest().body(
             new RestError(400, "Campos inválidos")
         );
@@ -41,6 +41,11 @@ public class RestExceptionHandler {
      */
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<RestError> responseStatusExceptionHandler(ResponseStatusException e) {
+        if (e.getStatusCode().is5xxServerError()) {
+            log.warn("evento=erro status={} motivo={}", e.getStatusCode().value(), e.getReason());
+        } else {
+            log.info("evento=erro status={} motivo={}", e.getStatusCode().value(), e.getReason());
+        }
         return ResponseEntity.status(e.getStatusCode()).body(
             new RestError(e.getStatusCode().value(), e.getBody().getDetail())
         );
@@ -54,6 +59,7 @@ public class RestExceptionHandler {
      */
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<RestError> httpMessageNotReadableException(HttpMessageNotReadableException e) {
+        log.info("evento=erro status={} motivo={}", 400, "corpo-ilegivel");
         return ResponseEntity.badRequest().body(
             new RestError(400, "Campos inválidos")
         );
@@ -25,6 +25,15 @@ public class SecurityConfig {
     @Autowired
     AuthorizationFilter authorizationFilter;
 
+    @Autowired
+    IpRateLimitFilter ipRateLimitFilter;
+
+    @Autowired
+    RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    IdempotencyFilter idempotencyFilter;
+
     /**
      * Configura a cadeia de filtros de segurança.
      *
@@ -39,6 +48,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.POST, "/api/usuarios/cadastro").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/usuarios/login").permitAll()
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                .requestMatchers(HttpMethod.GET, "/livez", "/readyz").permitAll()
                 .anyRequest().authenticated()
             .and()
             .csrf().disable()
@@ -47,7 +57,10 @@ public class SecurityConfig {
             .and()
             .headers().frameOptions().disable()
             .and()
-            .addFilterBefore(authorizationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(ipRateLimitFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(authorizationFilter, IpRateLimitFilter.class)
+            .addFilterAfter(rateLimitFilter, AuthorizationFilter.class)
+            .addFilterAfter(idempotencyFilter, RateLimitFilter.class)
             .build();
     }
 
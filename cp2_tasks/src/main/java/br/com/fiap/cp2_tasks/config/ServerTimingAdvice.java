@@ -0,0 +1,36 @@
+package br.com.fiap.cp2_tasks.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Escreve o cabeçalho Server-Timing logo antes da serialização do corpo da resposta,
+ * enquanto os cabeçalhos ainda podem ser alterados.
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+        var timing = RequestTiming.current();
+        if (timing != null) {
+            timing.markHandlerEnd();
+            response.getHeaders().set(ServerTimingFilter.SERVER_TIMING, timing.header());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.fiap.cp2_tasks.config;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import br.com.fiap.cp2_tasks.config.RequestTiming.Phase;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Filtro que mede as fases de cada requisição e as devolve no cabeçalho Server-Timing.
+ * 
+ * <p>O cabeçalho é escrito antes do corpo (veja {@link ServerTimingAdvice}), portanto não inclui
+ * a serialização; ela aparece apenas no registro das requisições lentas, que é feito por amostragem
+ * para as que passam do limite configurado e lista os comandos SQL executados.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    @Value("${api.tracing.enabled:true}")
+    boolean enabled;
+
+    @Value("${api.tracing.slow-threshold-ms:500}")
+    long slowThresholdMs;
+
+    @Value("${api.tracing.slow-sample-rate:1.0}")
+    double slowSampleRate;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        var timing = RequestTiming.begin();
+        try {
+            filterChain.doFilter(request, new HttpServletResponseWrapper(response) {
+                // Erros enviados por sendError (por exemplo, 401 e 403 do Spring Security) confirmam a resposta na hora
+                @Override
+                public void sendError(int sc, String msg) throws IOException {
+                    setHeader(SERVER_TIMING, timing.header());
+                    super.sendError(sc, msg);
+                }
+
+                @Override
+                public void sendError(int sc) throws IOException {
+                    setHeader(SERVER_TIMING, timing.header());
+                    super.sendError(sc);
+                }
+            });
+
+            // Respostas sem corpo (ou recusadas antes do controlador) não passam pelo ServerTimingAdvice
+            if (!response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+                response.setHeader(SERVER_TIMING, timing.header());
+            }
+        } finally {
+            logIfSlow(request, response, timing);
+            timing.end();
+        }
+    }
+
+    private void logIfSlow(HttpServletRequest request, HttpServletResponse response, RequestTiming timing) {
+        long end = System.nanoTime();
+        long totalNanos = end - timing.startNanos();
+        if (totalNanos < TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)) return;
+        if (ThreadLocalRandom.current().nextDouble() >= slowSampleRate) return;
+
+        long handlerEnd = timing.handlerEndNanos() != 0 ? timing.handlerEndNanos() : end;
+        log.warn("evento=requisicao.lenta method={} uri={} status={} totalMs={} jwtMs={} userMs={} dbMs={} linksMs={} serializeMs={} sqlCount={} sql=[{}]",
+            request.getMethod(), request.getRequestURI(), response.getStatus(),
+            millis(totalNanos), millis(timing.phaseNanos(Phase.JWT)), millis(timing.phaseNanos(Phase.USER)),
+            millis(timing.phaseNanos(Phase.DB)), millis(timing.phaseNanos(Phase.LINKS)), millis(end - handlerEnd),
+            timing.statements(), timing.describeStatements());
+    }
+
+    private static String millis(long nanos) {
+        return RequestTiming.appendDuration(new StringBuilder(12), nanos).toString();
+    }
+}
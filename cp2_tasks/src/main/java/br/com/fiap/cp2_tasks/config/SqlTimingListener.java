@@ -0,0 +1,47 @@
+package br.com.fiap.cp2_tasks.config;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registra no {@link RequestTiming} da requisição atual o texto e a duração de cada comando SQL.
+ * 
+ * <p>O Hibernate cria a mesma classe como inspetor de comandos (que recebe o SQL preparado)
+ * e como ouvinte de cada sessão (que marca o início e o fim da execução); veja
+ * {@code hibernate.session_factory.statement_inspector} e
+ * {@code hibernate.session.events.auto} em application.properties.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+public class SqlTimingListener implements StatementInspector, SessionEventListener {
+
+    @Override
+    public String inspect(String sql) {
+        var timing = RequestTiming.current();
+        if (timing != null) timing.statementPrepared(sql);
+        return sql;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        var timing = RequestTiming.current();
+        if (timing != null) timing.statementStarted();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        var timing = RequestTiming.current();
+        if (timing != null) timing.statementEnded();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+}
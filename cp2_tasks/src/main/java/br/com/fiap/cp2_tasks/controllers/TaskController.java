@@ -1,20 +1,50 @@
 package br.com.fiap.cp2_tasks.controllers;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.PagedModel.PageMetadata;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import br.com.fiap.cp2_tasks.config.RequestTiming;
+import br.com.fiap.cp2_tasks.config.RequestTiming.Phase;
+import br.com.fiap.cp2_tasks.exceptions.NotFoundException;
+import br.com.fiap.cp2_tasks.models.AuditEvent;
+import br.com.fiap.cp2_tasks.models.BatchModel;
+import br.com.fiap.cp2_tasks.models.LeanPage;
 import br.com.fiap.cp2_tasks.models.Task;
+import br.com.fiap.cp2_tasks.models.TaskReport;
+import br.com.fiap.cp2_tasks.models.User;
+import br.com.fiap.cp2_tasks.repository.AuditEventRepository;
 import br.com.fiap.cp2_tasks.repository.TaskRepository;
+import br.com.fiap.cp2_tasks.service.AuditTrail;
+import br.com.fiap.cp2_tasks.service.ChangeLogService;
+import br.com.fiap.cp2_tasks.service.DatabaseBulkhead;
+import br.com.fiap.cp2_tasks.service.NegativeLookup;
+import br.com.fiap.cp2_tasks.service.QueryPageCache;
+import br.com.fiap.cp2_tasks.service.SparseFieldsService;
+import br.com.fiap.cp2_tasks.service.TaskReportService;
+import br.com.fiap.cp2_tasks.service.TaskWriteCoalescer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -35,14 +65,50 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class TaskController {
 
+    /** Quantidade máxima de IDs aceitos em uma busca em lote. */
+    private static final int MAX_BATCH_IDS = 200;
+
+    /** Campos que podem ser pedidos em {@code ?fields=}. */
+    private static final Set<String> SPARSE_FIELDS = Set.of("id", "title", "description", "status", "dueDate");
+
     @Autowired
     TaskRepository taskRepository;
 
     @Autowired
     PagedResourcesAssembler<Object> assembler;
 
+    @Autowired
+    SparseFieldsService sparseFieldsService;
+
+    @Autowired
+    TaskWriteCoalescer taskWriteCoalescer;
+
+    @Autowired
+    NegativeLookup negativeLookup;
+
+    @Autowired
+    QueryPageCache queryPageCache;
+
+    @Autowired
+    DatabaseBulkhead databaseBulkhead;
+
+    @Autowired
+    ChangeLogService changeLogService;
+
+    @Autowired
+    AuditTrail auditTrail;
+
+    @Autowired
+    AuditEventRepository auditEventRepository;
+
+    @Autowired
+    PagedResourcesAssembler<AuditEvent> auditAssembler;
+
+    @Autowired
+    TaskReportService taskReportService;
+
     /**
-     * Lista todas as tarefas cadastradas com suporte à paginação.
+     * Lista as tarefas do usuário autenticado com suporte à paginação.
      *
      * @param busca Parâmetro de busca opcional para filtrar tarefas por título.
      * @param pageable Configuração de paginação.
@@ -58,14 +124,105 @@ public class TaskController {
             @ApiResponse(responseCode = "200", description = "Listagem feita com sucesso"),
             @ApiResponse(responseCode = "404", description = "Lista não encontrada"),
     })
-    public PagedModel<EntityModel<Object>> index(@RequestParam(required = false) String busca, @ParameterObject @PageableDefault(size = 5) Pageable pageable) {
-        log.info("Buscar Tarefas");
+    public PagedModel<EntityModel<Object>> index(@RequestParam(required = false) String busca, @ParameterObject @PageableDefault(size = 5, sort = {"dueDate", "id"}) Pageable pageable) {
+        log.info("evento=tarefa.listar pagina={} busca={}", pageable.getPageNumber(), busca != null);
+        var termo = QueryPageCache.normalize(busca);
+
+        var ownerId = currentUser().getId();
+        Page<Task> tasks = databaseBulkhead.read("tarefas", Arrays.asList("pagina", ownerId, termo, pageable),
+                () -> queryPageCache.findPage("task", ownerId, termo, pageable,
+                        () -> (termo == null) ?
+                                taskRepository.findByOwnerId(ownerId, pageable) :
+                                taskRepository.findByOwnerIdAndTitleContaining(ownerId, termo, pageable),
+                        taskRepository::findAllById, Task::getId));
+
+        return RequestTiming.time(Phase.LINKS, () -> assembler.toModel(tasks.map(Task::toEntityModel)));
+    }
+
+    /**
+     * Lista as tarefas do usuário autenticado lendo apenas os campos pedidos, sem links HATEOAS.
+     *
+     * @param busca Parâmetro de busca opcional para filtrar tarefas por título.
+     * @param fields Os campos desejados, separados por vírgula (o ID é sempre incluído).
+     * @param ids Os IDs das tarefas, separados por vírgula, para limitar a listagem (opcional).
+     * @param pageable Configuração de paginação.
+     * @return Uma página com os campos pedidos de cada tarefa.
+     */
+    @GetMapping(params = "fields")
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(
+            summary = "Listar tarefas com campos selecionados",
+            description = "Retorna as tarefas cadastradas apenas com os campos informados em fields"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Listagem feita com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Campo inválido ou quantidade de IDs acima do limite"),
+    })
+    public LeanPage indexFields(@RequestParam(required = false) String busca, @RequestParam String fields, @RequestParam(required = false) List<Long> ids, @ParameterObject @PageableDefault(size = 5, sort = {"dueDate", "id"}) Pageable pageable) {
+        log.info("evento=tarefa.listar-campos pagina={} busca={}", pageable.getPageNumber(), busca != null);
+        var termo = QueryPageCache.normalize(busca);
+
+        var selected = sparseFieldsService.parse(Task.class, SPARSE_FIELDS, fields);
+        var filter = ownedBy(termo);
+        if (ids != null) filter = filter.and(SparseFieldsService.idIn(uniqueIds(ids)));
+        var page = sparseFieldsService.findPage(Task.class, selected, filter, pageable);
+
+        return new LeanPage(page.getContent(),
+                new PageMetadata(page.getSize(), page.getNumber(), page.getTotalElements(), page.getTotalPages()));
+    }
+
+    /**
+     * Retorna várias tarefas do usuário autenticado em uma única consulta.
+     *
+     * @param ids Os IDs das tarefas, separados por vírgula.
+     * @return As tarefas na ordem informada e a lista de IDs não encontrados.
+     */
+    @GetMapping(params = {"ids", "!fields"})
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(
+            summary = "Buscar tarefas por IDs",
+            description = "Retorna as tarefas com os IDs informados, na mesma ordem, e os IDs não encontrados"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Busca feita com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Quantidade de IDs acima do limite"),
+    })
+    public BatchModel<Task> batch(@RequestParam List<Long> ids) {
+        log.info("evento=tarefa.buscar-lote quantidade={}", ids.size());
+
+        var uniqueIds = uniqueIds(ids);
+
+        var found = new HashMap<Long, Task>();
+        taskRepository.findAllByOwnerIdInChunks(currentUser().getId(), uniqueIds)
+                .forEach(task -> found.put(task.getId(), task));
 
-        Page<Task> tasks = (busca == null) ?
-                taskRepository.findAll(pageable) :
-                taskRepository.findByTitleContaining(busca, pageable);
+        var tasks = new ArrayList<Task>(found.size());
+        var missing = new ArrayList<Long>();
+        for (Long id : uniqueIds) {
+            var task = found.get(id);
+            if (task != null) tasks.add(task); else missing.add(id);
+        }
 
-        return assembler.toModel(tasks.map(Task::toEntityModel));
+        return new BatchModel<>(RequestTiming.time(Phase.LINKS, () -> Task.toEntityModels(tasks)), missing);
+    }
+
+    /**
+     * Gera o relatório gerencial das tarefas do usuário autenticado.
+     *
+     * @return As contagens por status e semana de vencimento, a taxa de conclusão e as faixas de atraso.
+     */
+    @GetMapping("relatorio")
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(
+            summary = "Relatório de tarefas",
+            description = "Retorna as tarefas por status e semana de vencimento, a taxa de conclusão e as tarefas vencidas por faixa de atraso"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Relatório gerado com sucesso"),
+    })
+    public TaskReport report() {
+        log.info("evento=tarefa.relatorio");
+        return taskReportService.generate(currentUser().getId());
     }
 
     /**
@@ -85,9 +242,40 @@ public class TaskController {
             @ApiResponse(responseCode = "404", description = "Não foi encontrada uma tarefa com esse ID"),
     })
     public EntityModel<Task> show(@PathVariable Long id) {
-        log.info("Buscar Tarefa " + id);
-        var task = findByTask(id);
-        return task.toEntityModel();
+        log.info("evento=tarefa.buscar id={}", id);
+        // Leituras simultâneas da mesma tarefa compartilham uma única consulta
+        var key = List.of(currentUser().getId(), id);
+        var task = databaseBulkhead.read("tarefas", "tarefa-por-id", key, () -> findByTask(id));
+        return RequestTiming.time(Phase.LINKS, task::toEntityModel);
+    }
+
+    /**
+     * Retorna apenas os campos pedidos de uma tarefa, sem links HATEOAS.
+     *
+     * @param id O ID da tarefa a ser consultada.
+     * @param fields Os campos desejados, separados por vírgula (o ID é sempre incluído).
+     * @return Os campos pedidos da tarefa.
+     */
+    @GetMapping(value = "{id}", params = "fields")
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(
+            summary = "Detalhes da tarefa com campos selecionados",
+            description = "Retorna a tarefa com o ID informado apenas com os campos informados em fields"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Os dados foram retornados com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Campo inválido"),
+            @ApiResponse(responseCode = "404", description = "Não foi encontrada uma tarefa com esse ID"),
+    })
+    public Map<String, Object> showFields(@PathVariable Long id, @RequestParam String fields) {
+        log.info("evento=tarefa.buscar-campos id={}", id);
+
+        var selected = sparseFieldsService.parse(Task.class, SPARSE_FIELDS, fields);
+        if (negativeLookup.isMissingTask(id)) throw new NotFoundException("Tarefa não encontrada");
+
+        Specification<Task> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return sparseFieldsService.findOne(Task.class, selected, byId.and(ownedBy(null)))
+                .orElseThrow(() -> new NotFoundException("Tarefa não encontrada"));
     }
 
     /**
@@ -107,11 +295,15 @@ public class TaskController {
             @ApiResponse(responseCode = "400", description = "Campos inválidos"),
     })
     public ResponseEntity<Object> create(@RequestBody @Valid Task task) {
-        log.info("Cadastrando Tarefa" + task);
-        taskRepository.save(task);
+        task.setOwner(currentUser());
+        taskWriteCoalescer.save(task);
+        log.info("evento=tarefa.cadastrar id={}", task.getId());
+        changeLogService.publish(ChangeLogService.TASK, task.getId());
+        auditTrail.record(ChangeLogService.TASK, task.getId(), AuditTrail.CREATE, task.getOwner());
+        var model = RequestTiming.time(Phase.LINKS, task::toEntityModel);
         return ResponseEntity
-                .created(task.toEntityModel().getRequiredLink("self").toUri())
-                .body(task.toEntityModel());
+                .created(model.getRequiredLink("self").toUri())
+                .body(model);
     }
 
     /**
@@ -131,9 +323,14 @@ public class TaskController {
             @ApiResponse(responseCode = "404", description = "Conteúdo não encontrado"),
     })
     public ResponseEntity<Object> delete(@PathVariable Long id) {
-        log.info("Deletando Tarefa");
+        log.info("evento=tarefa.excluir id={}", id);
 
-        taskRepository.delete(findByTask(id));
+        // Exclusão lógica em um único UPDATE; a linha é removida depois pelo TombstonePurger
+        if (negativeLookup.isMissingTask(id) || taskRepository.softDelete(id, currentUser().getId(), Instant.now()) == 0) {
+            throw new NotFoundException("Tarefa não encontrada");
+        }
+        changeLogService.publish(ChangeLogService.TASK, id);
+        auditTrail.record(ChangeLogService.TASK, id, AuditTrail.DELETE, currentUser());
         return ResponseEntity.noContent().build();
     }
 
@@ -156,21 +353,95 @@ public class TaskController {
             @ApiResponse(responseCode = "404", description = "Tarefa não encontrada")
     })
     public EntityModel<Task> update(@PathVariable @Valid Long id, @RequestBody Task task) {
-        log.info("Alterar Tarefa " + id);
+        log.info("evento=tarefa.alterar id={}", id);
         findByTask(id);
         task.setId(id);
+        task.setOwner(currentUser());
         taskRepository.save(task);
-        return task.toEntityModel();
+        changeLogService.publish(ChangeLogService.TASK, id);
+        auditTrail.record(ChangeLogService.TASK, id, AuditTrail.UPDATE, task.getOwner());
+        return RequestTiming.time(Phase.LINKS, task::toEntityModel);
     }
 
     /**
-     * Localiza uma tarefa com base em seu ID.
+     * Retorna o histórico de alterações de uma tarefa do usuário autenticado, com o autor de cada
+     * alteração. Tarefas excluídas continuam com histórico enquanto não forem removidas definitivamente.
+     *
+     * @param id O ID da tarefa.
+     * @param de O início do período, ou nulo para desde o início.
+     * @param ate O fim do período, ou nulo para até agora.
+     * @param pageable As opções de paginação, do evento mais recente para o mais antigo.
+     * @return Os eventos de auditoria da tarefa, paginados.
+     * @throws NotFoundException Se a tarefa não existir ou não for do usuário autenticado.
+     */
+    @GetMapping("{id}/historico")
+    @SecurityRequirement(name = "bearer-key")
+    @Operation(
+            summary = "Histórico da tarefa",
+            description = "Retorna quem cadastrou, alterou ou excluiu a tarefa e quando, do mais recente para o mais antigo"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Os dados foram retornados com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Tarefa não encontrada"),
+    })
+    public PagedModel<EntityModel<AuditEvent>> history(@PathVariable Long id, @RequestParam(required = false) Instant de, @RequestParam(required = false) Instant ate,
+            @ParameterObject @PageableDefault(size = 20, sort = "occurredAt", direction = Direction.DESC) Pageable pageable) {
+        log.info("evento=tarefa.historico id={}", id);
+        if (taskRepository.countByIdAndOwnerIdIncludingDeleted(id, currentUser().getId()) == 0) {
+            throw new NotFoundException("Tarefa não encontrada");
+        }
+        var events = auditEventRepository.findByEntityAndEntityIdAndOccurredAtBetween(ChangeLogService.TASK, id,
+                de == null ? Instant.EPOCH : de, ate == null ? Instant.now() : ate, pageable);
+        return auditAssembler.toModel(events);
+    }
+
+    /**
+     * Localiza uma tarefa do usuário autenticado com base em seu ID.
      *
      * @param id O ID da tarefa a ser localizada.
      * @return A tarefa encontrada, se existir.
-     * @throws ResponseStatusException Se a tarefa não for encontrada, uma exceção com status HTTP 404 (Not Found) é lançada.
+     * @throws NotFoundException Se a tarefa não for encontrada, uma exceção com status HTTP 404 (Not Found) é lançada.
+     *         IDs que certamente não existem são recusados sem consultar o banco.
     */
     private Task findByTask(Long id) {
-        return taskRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tarefa não encontrada"));
+        if (negativeLookup.isMissingTask(id)) throw new NotFoundException("Tarefa não encontrada");
+        return taskRepository.findByIdAndOwnerId(id, currentUser().getId()).orElseThrow(() -> new NotFoundException("Tarefa não encontrada"));
+    }
+
+    /**
+     * Remove os IDs repetidos, mantendo a ordem, e limita a quantidade de IDs por requisição.
+     *
+     * @param ids Os IDs informados.
+     * @return Os IDs sem repetição.
+     * @throws ResponseStatusException Se houver mais de {@value #MAX_BATCH_IDS} IDs (400).
+     */
+    private List<Long> uniqueIds(List<Long> ids) {
+        var uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (uniqueIds.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe no máximo " + MAX_BATCH_IDS + " IDs");
+        }
+        return uniqueIds;
+    }
+
+    /**
+     * Monta o filtro das tarefas do usuário autenticado, com busca opcional por título.
+     *
+     * @param busca A parte do título a ser pesquisada, ou nulo.
+     * @return O filtro da consulta.
+     */
+    private Specification<Task> ownedBy(String busca) {
+        var ownerId = currentUser().getId();
+        return (root, query, cb) -> (busca == null) ?
+                cb.equal(root.get("owner").get("id"), ownerId) :
+                cb.and(cb.equal(root.get("owner").get("id"), ownerId), SparseFieldsService.containing(cb, root.get("title"), busca));
+    }
+
+    /**
+     * Obtém o usuário autenticado, definido no contexto de segurança pelo AuthorizationFilter.
+     *
+     * @return O usuário autenticado.
+     */
+    private User currentUser() {
+        return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
     }
 }
@@ -1,16 +1,29 @@
 package br.com.fiap.cp2_tasks.controllers;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.PagedModel.PageMetadata;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,10 +36,23 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import br.com.fiap.cp2_tasks.config.RequestTiming;
+import br.com.fiap.cp2_tasks.config.RequestTiming.Phase;
+import br.com.fiap.cp2_tasks.exceptions.NotFoundException;
+import br.com.fiap.cp2_tasks.models.AuditEvent;
+import br.com.fiap.cp2_tasks.models.BatchModel;
 import br.com.fiap.cp2_tasks.models.Credencial;
+import br.com.fiap.cp2_tasks.models.LeanPage;
 import br.com.fiap.cp2_tasks.models.Token;
 import br.com.fiap.cp2_tasks.models.User;
+import br.com.fiap.cp2_tasks.repository.AuditEventRepository;
 import br.com.fiap.cp2_tasks.repository.UserRepository;
+import br.com.fiap.cp2_tasks.service.AuditTrail;
+import br.com.fiap.cp2_tasks.service.ChangeLogService;
+import br.com.fiap.cp2_tasks.service.DatabaseBulkhead;
+import br.com.fiap.cp2_tasks.service.NegativeLookup;
+import br.com.fiap.cp2_tasks.service.QueryPageCache;
+import br.com.fiap.cp2_tasks.service.SparseFieldsService;
 import br.com.fiap.cp2_tasks.service.TokenService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -48,6 +74,12 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class UserController {
 
+	/** Quantidade máxima de IDs aceitos em uma busca em lote. */
+	private static final int MAX_BATCH_IDS = 200;
+
+	/** Campos que podem ser pedidos em {@code ?fields=} (a senha nunca é exposta). */
+	private static final Set<String> SPARSE_FIELDS = Set.of("id", "username", "roles");
+
 	@Autowired
 	UserRepository userRepository;
 
@@ -63,6 +95,30 @@ public class UserController {
 	@Autowired
 	TokenService tokenService;
 
+	@Autowired
+	SparseFieldsService sparseFieldsService;
+
+	@Autowired
+	NegativeLookup negativeLookup;
+
+	@Autowired
+	QueryPageCache queryPageCache;
+
+	@Autowired
+	DatabaseBulkhead databaseBulkhead;
+
+	@Autowired
+	ChangeLogService changeLogService;
+
+	@Autowired
+	AuditTrail auditTrail;
+
+	@Autowired
+	AuditEventRepository auditEventRepository;
+
+	@Autowired
+	PagedResourcesAssembler<AuditEvent> auditAssembler;
+
 	/**
 	 * Obtém uma lista paginada de usuários.
 	 *
@@ -83,13 +139,89 @@ public class UserController {
 	public PagedModel<EntityModel<Object>> index(
 		@RequestParam(required = false) String busca,
 		@ParameterObject @PageableDefault(size = 5) Pageable pageable) {
-		log.info("Buscar Usuários");
+		log.info("evento=usuario.listar pagina={} busca={}", pageable.getPageNumber(), busca != null);
+		var termo = QueryPageCache.normalize(busca);
 
-		Page<User> usuarios = (busca == null) ?
-			userRepository.findAll(pageable) :
-			userRepository.findByUsernameContaining(busca, pageable);
+		Page<User> usuarios = databaseBulkhead.read("usuarios", Arrays.asList("pagina", termo, pageable),
+			() -> queryPageCache.findPage("user", null, termo, pageable,
+				() -> (termo == null) ?
+					userRepository.findAll(pageable) :
+					userRepository.findByUsernameContaining(termo, pageable),
+				userRepository::findAllById, User::getId));
 
-		return assembler.toModel(usuarios.map(User::toEntityModel));
+		return RequestTiming.time(Phase.LINKS, () -> assembler.toModel(usuarios.map(User::toEntityModel)));
+	}
+
+	/**
+	 * Obtém uma lista paginada de usuários lendo apenas os campos pedidos, sem links HATEOAS.
+	 *
+	 * @param busca   Termo de busca opcional para filtrar usuários.
+	 * @param fields  Os campos desejados, separados por vírgula (o ID é sempre incluído).
+	 * @param ids     Os IDs dos usuários, separados por vírgula, para limitar a listagem (opcional).
+	 * @param pageable Configuração da paginação.
+	 * @return Uma página com os campos pedidos de cada usuário.
+	 */
+	@GetMapping(params = "fields")
+	@SecurityRequirement(name = "bearer-key")
+	@Operation(
+		summary = "Listar usuários com campos selecionados",
+		description = "Retorna os usuários cadastrados apenas com os campos informados em fields"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "Listagem feita com sucesso"),
+		@ApiResponse(responseCode = "400", description = "Campo inválido ou quantidade de IDs acima do limite"),
+	})
+	public LeanPage indexFields(
+		@RequestParam(required = false) String busca,
+		@RequestParam String fields,
+		@RequestParam(required = false) List<Long> ids,
+		@ParameterObject @PageableDefault(size = 5) Pageable pageable) {
+		log.info("evento=usuario.listar-campos pagina={} busca={}", pageable.getPageNumber(), busca != null);
+		var termo = QueryPageCache.normalize(busca);
+
+		var selected = sparseFieldsService.parse(User.class, SPARSE_FIELDS, fields);
+		Specification<User> filter = (root, query, cb) -> (termo == null) ?
+			cb.conjunction() :
+			SparseFieldsService.containing(cb, root.get("username"), termo);
+		if (ids != null) filter = filter.and(SparseFieldsService.idIn(uniqueIds(ids)));
+		var page = sparseFieldsService.findPage(User.class, selected, filter, pageable);
+
+		return new LeanPage(page.getContent(),
+			new PageMetadata(page.getSize(), page.getNumber(), page.getTotalElements(), page.getTotalPages()));
+	}
+
+	/**
+	 * Obtém vários usuários em uma única consulta.
+	 *
+	 * @param ids Os IDs dos usuários, separados por vírgula.
+	 * @return Os usuários na ordem informada e a lista de IDs não encontrados.
+	 */
+	@GetMapping(params = {"ids", "!fields"})
+	@SecurityRequirement(name = "bearer-key")
+	@Operation(
+		summary = "Buscar usuários por IDs",
+		description = "Retorna os usuários com os IDs informados, na mesma ordem, e os IDs não encontrados"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "Busca feita com sucesso"),
+		@ApiResponse(responseCode = "400", description = "Quantidade de IDs acima do limite"),
+	})
+	public BatchModel<User> batch(@RequestParam List<Long> ids) {
+		log.info("evento=usuario.buscar-lote quantidade={}", ids.size());
+
+		var uniqueIds = uniqueIds(ids);
+
+		var found = new HashMap<Long, User>();
+		userRepository.findAllByIdInChunks(uniqueIds).forEach(user -> found.put(user.getId(), user));
+
+		var users = new ArrayList<User>(found.size());
+		var missing = new ArrayList<Long>();
+		for (Long id : uniqueIds) {
+			var user = found.get(id);
+			if (user != null) users.add(user); else missing.add(id);
+		}
+
+		return new BatchModel<>(RequestTiming.time(Phase.LINKS, () -> User.toEntityModels(users)), missing);
 	}
 
 	/**
@@ -109,9 +241,39 @@ public class UserController {
 		@ApiResponse(responseCode = "404", description = "Não foi encontrado um usuário com esse ID"),
 	})
 	public EntityModel<User> show(@PathVariable Long id) {
-		log.info("Buscar Usuário " + id);
-		var user = findByUser(id);
-		return user.toEntityModel();
+		log.info("evento=usuario.buscar id={}", id);
+		// Leituras simultâneas do mesmo usuário compartilham uma única consulta
+		var user = databaseBulkhead.read("usuarios", "usuario-por-id", id, () -> findByUser(id));
+		return RequestTiming.time(Phase.LINKS, user::toEntityModel);
+	}
+
+	/**
+	 * Obtém apenas os campos pedidos de um usuário, sem links HATEOAS.
+	 *
+	 * @param id     O ID do usuário a ser obtido.
+	 * @param fields Os campos desejados, separados por vírgula (o ID é sempre incluído).
+	 * @return Os campos pedidos do usuário.
+	 */
+	@GetMapping(value = "{id}", params = "fields")
+	@SecurityRequirement(name = "bearer-key")
+	@Operation(
+		summary = "Detalhes usuário com campos selecionados",
+		description = "Retorna o usuário com o ID informado apenas com os campos informados em fields"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "Os dados foram retornados com sucesso"),
+		@ApiResponse(responseCode = "400", description = "Campo inválido"),
+		@ApiResponse(responseCode = "404", description = "Não foi encontrado um usuário com esse ID"),
+	})
+	public Map<String, Object> showFields(@PathVariable Long id, @RequestParam String fields) {
+		log.info("evento=usuario.buscar-campos id={}", id);
+
+		var selected = sparseFieldsService.parse(User.class, SPARSE_FIELDS, fields);
+		if (negativeLookup.isMissingUser(id)) throw new NotFoundException("Usuário não encontrado");
+
+		Specification<User> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+		return sparseFieldsService.findOne(User.class, selected, byId)
+			.orElseThrow(() -> new NotFoundException("Usuário não encontrado"));
 	}
 
 	/**
@@ -131,12 +293,16 @@ public class UserController {
 		@ApiResponse(responseCode = "409", description = "Já existe um usuário com o e-mail fornecido"),
 	})
 	public ResponseEntity<Object> create(@RequestBody @Valid User user) {
-		log.info("Cadastrando Usuário" + user);
 		user.setPassword(encoder.encode(user.getPassword()));
 		userRepository.save(user);
+		log.info("evento=usuario.cadastrar id={}", user.getId());
+		changeLogService.publish(ChangeLogService.USER, user.getId());
+		// No cadastro não há usuário autenticado: o autor é o próprio usuário criado
+		auditTrail.record(ChangeLogService.USER, user.getId(), AuditTrail.CREATE, user);
+		var model = RequestTiming.time(Phase.LINKS, user::toEntityModel);
 		return ResponseEntity
-			.created(user.toEntityModel().getRequiredLink("self").toUri())
-			.body(user.toEntityModel());
+			.created(model.getRequiredLink("self").toUri())
+			.body(model);
 	}
 
 	/**
@@ -156,8 +322,13 @@ public class UserController {
 		@ApiResponse(responseCode = "404", description = "Conteúdo não encontrado"),
 	})
 	public ResponseEntity<Object> delete(@PathVariable Long id) {
-		log.info("Deletando Usuário");
-		userRepository.delete(findByUser(id));
+		log.info("evento=usuario.excluir id={}", id);
+		// Exclusão lógica em um único UPDATE; a linha é removida depois pelo TombstonePurger
+		if (negativeLookup.isMissingUser(id) || userRepository.softDelete(id, Instant.now()) == 0) {
+			throw new NotFoundException("Usuário não encontrado");
+		}
+		changeLogService.publish(ChangeLogService.USER, id);
+		auditTrail.record(ChangeLogService.USER, id, AuditTrail.DELETE, currentUser());
 		return ResponseEntity.noContent().build();
 	}
 
@@ -180,12 +351,48 @@ public class UserController {
 		@ApiResponse(responseCode = "404", description = "Avaliação não encontrada")
 	})
 	public EntityModel<User> update(@PathVariable @Valid Long id, @RequestBody User user) {
-		log.info("Alterar Usuário " + id);
+		log.info("evento=usuario.alterar id={}", id);
 		findByUser(id);
 		user.setId(id);
 		user.setPassword(encoder.encode(user.getPassword()));
 		userRepository.save(user);
-		return user.toEntityModel();
+		changeLogService.publish(ChangeLogService.USER, id);
+		auditTrail.record(ChangeLogService.USER, id, AuditTrail.UPDATE, currentUser());
+		return RequestTiming.time(Phase.LINKS, user::toEntityModel);
+	}
+
+	/**
+	 * Obtém o histórico de alterações do próprio usuário autenticado, com o autor de cada alteração.
+	 *
+	 * @param id       O ID do usuário, que deve ser o do usuário autenticado.
+	 * @param de       O início do período, ou nulo para desde o início.
+	 * @param ate      O fim do período, ou nulo para até agora.
+	 * @param pageable Configuração da paginação, do evento mais recente para o mais antigo.
+	 * @return Os eventos de auditoria do usuário, paginados.
+	 */
+	@GetMapping("{id}/historico")
+	@SecurityRequirement(name = "bearer-key")
+	@Operation(
+		summary = "Histórico do usuário",
+		description = "Retorna quem cadastrou, alterou ou excluiu o usuário autenticado e quando, do mais recente para o mais antigo"
+	)
+	@ApiResponses(value = {
+		@ApiResponse(responseCode = "200", description = "Os dados foram retornados com sucesso"),
+		@ApiResponse(responseCode = "403", description = "O ID não é o do usuário autenticado"),
+	})
+	public PagedModel<EntityModel<AuditEvent>> history(
+		@PathVariable Long id,
+		@RequestParam(required = false) Instant de,
+		@RequestParam(required = false) Instant ate,
+		@ParameterObject @PageableDefault(size = 20, sort = "occurredAt", direction = Direction.DESC) Pageable pageable
+	) {
+		log.info("evento=usuario.historico id={}", id);
+		if (!id.equals(currentUser().getId())) {
+			throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Histórico disponível apenas para o próprio usuário");
+		}
+		var events = auditEventRepository.findByEntityAndEntityIdAndOccurredAtBetween(ChangeLogService.USER, id,
+			de == null ? Instant.EPOCH : de, ate == null ? Instant.now() : ate, pageable);
+		return auditAssembler.toModel(events);
 	}
 
 	/**
@@ -206,17 +413,44 @@ public class UserController {
 	public ResponseEntity<Token> login(@RequestBody Credencial credencial) {
 		manager.authenticate(credencial.toAuthentication());
 		var token = tokenService.generateToken(credencial);
+		log.info("evento=usuario.login");
 		return ResponseEntity.ok(token);
 	}
 
+	/**
+	 * Remove os IDs repetidos, mantendo a ordem, e limita a quantidade de IDs por requisição.
+	 *
+	 * @param ids Os IDs informados.
+	 * @return Os IDs sem repetição.
+	 * @throws ResponseStatusException Se houver mais de {@value #MAX_BATCH_IDS} IDs (400).
+	 */
+	private List<Long> uniqueIds(List<Long> ids) {
+		var uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+		if (uniqueIds.size() > MAX_BATCH_IDS) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe no máximo " + MAX_BATCH_IDS + " IDs");
+		}
+		return uniqueIds;
+	}
+
 	/**
 	 * Busca um usuário por ID no repositório de usuários.
 	 *
 	 * @param id O ID do usuário a ser encontrado.
 	 * @return O usuário encontrado.
-	 * @throws ResponseStatusException Se o usuário não for encontrado, lança uma exceção com status HTTP 404 (NOT FOUND).
+	 * @throws NotFoundException Se o usuário não for encontrado, lança uma exceção com status HTTP 404 (NOT FOUND).
+	 *         IDs que certamente não existem são recusados sem consultar o banco.
 	*/
 	private User findByUser(Long id) {
-		return userRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado"));
+		if (negativeLookup.isMissingUser(id)) throw new NotFoundException("Usuário não encontrado");
+		return userRepository.findById(id).orElseThrow(() -> new NotFoundException("Usuário não encontrado"));
+	}
+
+	/**
+	 * Obtém o usuário autenticado, definido no contexto de segurança pelo AuthorizationFilter.
+	 *
+	 * @return O usuário autenticado.
+	 */
+	private User currentUser() {
+		return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 	}
 }
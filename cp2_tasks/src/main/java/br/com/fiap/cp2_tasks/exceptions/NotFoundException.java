@@ -0,0 +1,25 @@
+package br.com.fiap.cp2_tasks.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Uma exceção de recurso não encontrado (404) sem stack trace.
+ * 
+ * <p>O 404 é um resultado esperado, tratado pelo RestExceptionHandler, e o stack trace
+ * nunca é exibido; não preenchê-lo evita o custo de percorrer a pilha a cada requisição.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+public class NotFoundException extends ResponseStatusException {
+
+    public NotFoundException(String reason) {
+        super(HttpStatus.NOT_FOUND, reason);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
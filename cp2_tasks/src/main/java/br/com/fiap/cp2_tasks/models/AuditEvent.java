@@ -0,0 +1,62 @@
+package br.com.fiap.cp2_tasks.models;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Uma entidade que registra quem criou, alterou ou excluiu uma tarefa ou usuário, e quando.
+ * 
+ * <p>A tabela só recebe inserções, feitas em lotes pelo {@code AuditTrail}.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "T_CT_AUDIT_EVENT", indexes = {
+    @Index(name = "IX_CT_AUDIT_ENTITY_DT", columnList = "nm_entity, id_entity, dt_event")
+})
+public class AuditEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_event")
+    private Long id;
+
+    /** O nome da entidade alterada ("task" ou "user"). */
+    @Column(name = "nm_entity", length = 20, nullable = false)
+    private String entity;
+
+    @Column(name = "id_entity", nullable = false)
+    private Long entityId;
+
+    /** A operação: CREATE, UPDATE ou DELETE. */
+    @Column(name = "ds_action", length = 10, nullable = false)
+    private String action;
+
+    @Column(name = "id_actor")
+    private Long actorId;
+
+    @Column(name = "nm_actor", length = 50)
+    private String actorName;
+
+    /** O identificador de correlação (X-Request-Id) da requisição que fez a alteração. */
+    @Column(name = "id_request", length = 64)
+    private String requestId;
+
+    @Column(name = "dt_event", nullable = false)
+    private Instant occurredAt;
+}
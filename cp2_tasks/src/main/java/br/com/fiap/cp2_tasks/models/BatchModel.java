@@ -0,0 +1,37 @@
+package br.com.fiap.cp2_tasks.models;
+
+import java.util.List;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Uma coleção HATEOAS com o resultado de uma busca por vários IDs.
+ * 
+ * <p>O conteúdo segue a ordem dos IDs informados, e os IDs sem registro
+ * correspondente são listados em {@code missing}.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+public class BatchModel<T> extends CollectionModel<EntityModel<T>> {
+
+    private final List<Long> missing;
+
+    public BatchModel(List<EntityModel<T>> content, List<Long> missing) {
+        super(content);
+        this.missing = missing;
+    }
+
+    /**
+     * Retorna os IDs informados que não foram encontrados.
+     *
+     * @return Os IDs não encontrados, na ordem em que foram informados.
+     */
+    @JsonProperty("missing")
+    public List<Long> getMissing() {
+        return missing;
+    }
+}
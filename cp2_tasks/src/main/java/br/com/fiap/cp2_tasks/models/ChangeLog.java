@@ -0,0 +1,55 @@
+package br.com.fiap.cp2_tasks.models;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Uma entidade que registra uma alteração em uma tarefa ou usuário, lida pelas demais
+ * instâncias da aplicação para descartar seus caches locais.
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "T_CT_CHANGE_LOG", indexes = {
+    @Index(name = "IX_CT_CHANGE_LOG_DT", columnList = "dt_change")
+})
+public class ChangeLog {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_change")
+    private Long id;
+
+    /** O nome da entidade alterada ("task" ou "user"). */
+    @Column(name = "nm_entity", length = 20, nullable = false)
+    private String entity;
+
+    @Column(name = "id_entity", nullable = false)
+    private Long entityId;
+
+    /** Versão da alteração, crescente em cada instância. */
+    @Column(name = "nr_version", nullable = false)
+    private Long version;
+
+    /** A instância que fez a alteração (ela já descartou seus caches). */
+    @Column(name = "id_origin", length = 36, nullable = false)
+    private String origin;
+
+    @Column(name = "dt_change", nullable = false)
+    private Instant changedAt;
+}
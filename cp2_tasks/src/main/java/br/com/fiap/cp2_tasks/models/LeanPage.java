@@ -0,0 +1,16 @@
+package br.com.fiap.cp2_tasks.models;
+
+import java.util.Collection;
+
+import org.springframework.hateoas.PagedModel.PageMetadata;
+
+/**
+ * Um registro (record) que representa uma página no formato enxuto, sem links HATEOAS.
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+public record LeanPage(
+    Collection<?> content,
+    PageMetadata page
+) {}
@@ -3,17 +3,34 @@ package br.com.fiap.cp2_tasks.models;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.Where;
+import org.hibernate.type.NumericBooleanConverter;
 import org.springframework.data.domain.Pageable;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import br.com.fiap.cp2_tasks.controllers.TaskController;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -21,7 +38,9 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * Uma entidade que representa uma tarefa.
@@ -34,7 +53,12 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "T_CT_TASK")
+@Table(name = "T_CT_TASK", indexes = {
+    @Index(name = "IX_CT_TASK_OWNER_DUE", columnList = "owner_id, fl_deleted, dt_due, id_task"),
+    @Index(name = "IX_CT_TASK_OWNER_ID", columnList = "owner_id, fl_deleted, id_task"),
+    @Index(name = "IX_CT_TASK_DELETED", columnList = "fl_deleted, dt_deleted")
+})
+@Where(clause = "fl_deleted = 0")
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -58,6 +82,26 @@ public class Task {
     @Column(name = "dt_due")
     private LocalDate dueDate;
 
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User owner;
+
+    /** Marca de exclusão lógica; a linha é removida depois pela limpeza em segundo plano. */
+    @JsonIgnore
+    @Builder.Default
+    @ColumnDefault("0")
+    @Convert(converter = NumericBooleanConverter.class)
+    @Column(name = "fl_deleted", nullable = false)
+    private boolean deleted = false;
+
+    @JsonIgnore
+    @Column(name = "dt_deleted")
+    private Instant deletedAt;
+
     /**
      * Converte a tarefa em um objeto EntityModel, adicionando links HATEOAS.
      *
@@ -71,4 +115,23 @@ public class Task {
             linkTo(methodOn(TaskController.class).index(null, Pageable.unpaged())).withRel("all")
         );
     }
+
+    /**
+     * Converte várias tarefas em objetos EntityModel, montando uma única vez os links
+     * comuns e derivando os links de cada tarefa a partir do caminho base do controlador.
+     *
+     * @param tasks As tarefas a serem convertidas.
+     * @return Os objetos EntityModel, na mesma ordem das tarefas.
+     */
+    public static List<EntityModel<Task>> toEntityModels(List<Task> tasks) {
+        WebMvcLinkBuilder base = linkTo(TaskController.class);
+        Link all = linkTo(methodOn(TaskController.class).index(null, Pageable.unpaged())).withRel("all");
+
+        List<EntityModel<Task>> models = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Link self = base.slash(task.getId()).withSelfRel();
+            models.add(EntityModel.of(task, self, self.withRel("delete"), all));
+        }
+        return models;
+    }
 }
@@ -0,0 +1,24 @@
+package br.com.fiap.cp2_tasks.models;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Um registro (record) que representa o relatório gerencial das tarefas de um usuário.
+ * 
+ * @param total A quantidade de tarefas.
+ * @param completed A quantidade de tarefas concluídas.
+ * @param completionRate A fração de tarefas concluídas (de 0 a 1).
+ * @param perStatusPerWeek A quantidade de tarefas por status e por semana de vencimento (segunda-feira da semana).
+ * @param overdueAging A quantidade de tarefas vencidas e não concluídas por faixa de dias de atraso.
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+public record TaskReport(
+    long total,
+    long completed,
+    double completionRate,
+    Map<String, Map<LocalDate, Long>> perStatusPerWeek,
+    Map<String, Long> overdueAging
+) {}
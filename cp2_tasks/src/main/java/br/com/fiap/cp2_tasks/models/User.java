@@ -3,21 +3,32 @@ package br.com.fiap.cp2_tasks.models;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Where;
+import org.hibernate.type.NumericBooleanConverter;
 import org.springframework.data.domain.Pageable;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import br.com.fiap.cp2_tasks.controllers.UserController;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -37,7 +48,10 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "T_CT_USUARIO")
+@Table(name = "T_CT_USUARIO", indexes = {
+    @Index(name = "IX_CT_USUARIO_DELETED", columnList = "fl_deleted, dt_deleted")
+})
+@Where(clause = "fl_deleted = 0")
 public class User implements UserDetails {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -57,6 +71,18 @@ public class User implements UserDetails {
     @NotBlank(message = "Roles is mandatory")
     private String roles;
 
+    /** Marca de exclusão lógica; a linha é removida depois pela limpeza em segundo plano. */
+    @JsonIgnore
+    @Builder.Default
+    @ColumnDefault("0")
+    @Convert(converter = NumericBooleanConverter.class)
+    @Column(name = "fl_deleted", nullable = false)
+    private boolean deleted = false;
+
+    @JsonIgnore
+    @Column(name = "dt_deleted")
+    private Instant deletedAt;
+
     /**
      * Converte o usuário em um objeto EntityModel, adicionando links HATEOAS.
      *
@@ -71,6 +97,25 @@ public class User implements UserDetails {
         );
     }
 
+    /**
+     * Converte vários usuários em objetos EntityModel, montando uma única vez os links
+     * comuns e derivando os links de cada usuário a partir do caminho base do controlador.
+     *
+     * @param users Os usuários a serem convertidos.
+     * @return Os objetos EntityModel, na mesma ordem dos usuários.
+     */
+    public static List<EntityModel<User>> toEntityModels(List<User> users) {
+        WebMvcLinkBuilder base = linkTo(UserController.class);
+        Link all = linkTo(methodOn(UserController.class).index(null, Pageable.unpaged())).withRel("all");
+
+        List<EntityModel<User>> models = new ArrayList<>(users.size());
+        for (User user : users) {
+            Link self = base.slash(user.getId()).withSelfRel();
+            models.add(EntityModel.of(user, self, self.withRel("delete"), all));
+        }
+        return models;
+    }
+
     /**
      * Retorna a coleção de autoridades (papéis) associadas ao usuário.
      *
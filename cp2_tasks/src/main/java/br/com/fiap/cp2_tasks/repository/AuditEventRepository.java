@@ -0,0 +1,31 @@
+package br.com.fiap.cp2_tasks.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import br.com.fiap.cp2_tasks.models.AuditEvent;
+
+/**
+ * Uma interface que define um repositório para a trilha de auditoria.
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+public interface AuditEventRepository extends JpaRepository<AuditEvent, Long> {
+
+    /**
+     * Encontra os eventos de uma entidade em um período, de qualquer autor,
+     * usando o índice (entidade, ID, data).
+     *
+     * @param entity O nome da entidade.
+     * @param entityId O ID da entidade.
+     * @param from O início do período.
+     * @param to O fim do período.
+     * @param pageable As opções de paginação e ordenação.
+     * @return Uma página de eventos.
+     */
+    Page<AuditEvent> findByEntityAndEntityIdAndOccurredAtBetween(String entity, Long entityId, Instant from, Instant to, Pageable pageable);
+}
@@ -0,0 +1,59 @@
+package br.com.fiap.cp2_tasks.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.fiap.cp2_tasks.models.ChangeLog;
+
+/**
+ * Uma interface que define um repositório para o registro de alterações.
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+public interface ChangeLogRepository extends JpaRepository<ChangeLog, Long> {
+
+    /**
+     * Lê as alterações posteriores a um ID, em ordem, pela chave primária.
+     *
+     * @param id O último ID já lido.
+     * @param pageable O tamanho do lote (a contagem total não é feita).
+     * @return As alterações seguintes, em ordem crescente de ID.
+     */
+    List<ChangeLog> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Encontra alterações por vários IDs.
+     *
+     * @param ids Os IDs das alterações.
+     * @return As alterações encontradas.
+     */
+    List<ChangeLog> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Obtém o maior ID gravado.
+     *
+     * @return O maior ID, ou zero se não houver alterações.
+     */
+    @Query("select coalesce(max(c.id), 0) from ChangeLog c")
+    long findMaxId();
+
+    /**
+     * Remove as alterações anteriores a um instante.
+     *
+     * @param limit O instante limite.
+     * @return A quantidade de alterações removidas.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from ChangeLog c where c.changedAt < :limit")
+    int deleteOlderThan(@Param("limit") Instant limit);
+}
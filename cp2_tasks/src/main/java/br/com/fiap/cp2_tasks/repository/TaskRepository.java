@@ -1,10 +1,24 @@
 package br.com.fiap.cp2_tasks.repository;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.fiap.cp2_tasks.models.Task;
+import jakarta.persistence.QueryHint;
 
 /**
  * Uma interface que define um repositório para entidades de tarefas.
@@ -14,12 +28,164 @@ import br.com.fiap.cp2_tasks.models.Task;
  */
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
+    /** Tamanho máximo de cada lista IN enviada ao Oracle (limite de 1000 expressões). */
+    int IN_LIST_CHUNK = 500;
+
+    /** Linhas trazidas por ida ao banco nas consultas paginadas (o padrão do driver Oracle é 10). */
+    String PAGE_FETCH_SIZE = "100";
+
+    /** Linhas trazidas por ida ao banco nas leituras em massa (blocos de IDs, listas de IDs e relatório). */
+    String BULK_FETCH_SIZE = "500";
+
     /**
-     * Encontra tarefas com base em uma parte do título.
+     * Encontra as tarefas de um usuário.
      *
+     * @param ownerId O ID do usuário dono das tarefas.
+     * @param pageable As opções de paginação.
+     * @return Uma página com as tarefas do usuário.
+     */
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = PAGE_FETCH_SIZE), forCounting = false)
+    Page<Task> findByOwnerId(Long ownerId, Pageable pageable);
+
+    /**
+     * Encontra tarefas de um usuário com base em uma parte do título.
+     *
+     * @param ownerId O ID do usuário dono das tarefas.
      * @param busca A parte do título a ser pesquisada.
      * @param pageable As opções de paginação.
      * @return Uma página de tarefas que correspondem à busca.
      */
-    Page<Task> findByTitleContaining(String busca, Pageable pageable);
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = PAGE_FETCH_SIZE), forCounting = false)
+    Page<Task> findByOwnerIdAndTitleContaining(Long ownerId, String busca, Pageable pageable);
+
+    /**
+     * Encontra uma tarefa pelo ID, desde que pertença ao usuário.
+     *
+     * @param id O ID da tarefa.
+     * @param ownerId O ID do usuário dono da tarefa.
+     * @return Um objeto Optional que pode conter a tarefa encontrada.
+     */
+    Optional<Task> findByIdAndOwnerId(Long id, Long ownerId);
+
+    /**
+     * Encontra as tarefas de um usuário cujos IDs estão na lista informada.
+     *
+     * @param ownerId O ID do usuário dono das tarefas.
+     * @param ids Os IDs das tarefas.
+     * @return As tarefas encontradas, sem ordem definida.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE))
+    List<Task> findByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids);
+
+    /**
+     * Encontra tarefas por vários IDs (usado ao recompor páginas guardadas em cache).
+     *
+     * @param ids Os IDs das tarefas.
+     * @return As tarefas encontradas, sem ordem definida.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE))
+    @Override
+    List<Task> findAllById(Iterable<Long> ids);
+
+    /**
+     * Encontra as tarefas de um usuário por vários IDs, dividindo a lista em blocos de {@value #IN_LIST_CHUNK}.
+     *
+     * @param ownerId O ID do usuário dono das tarefas.
+     * @param ids Os IDs das tarefas.
+     * @return As tarefas encontradas, sem ordem definida.
+     */
+    default List<Task> findAllByOwnerIdInChunks(Long ownerId, List<Long> ids) {
+        List<Task> tasks = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK) {
+            tasks.addAll(findByOwnerIdAndIdIn(ownerId, ids.subList(from, Math.min(from + IN_LIST_CHUNK, ids.size()))));
+        }
+        return tasks;
+    }
+
+    /**
+     * Obtém o maior ID gravado, sem carregar as entidades.
+     *
+     * @return O maior ID, se houver tarefas.
+     */
+    @Query("select max(t.id) from Task t")
+    Optional<Long> findMaxId();
+
+    /**
+     * Percorre todos os IDs de tarefas em lotes do driver, sem carregar as entidades
+     * nem montar uma lista. Deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @return Os IDs gravados.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE))
+    @Query("select t.id from Task t")
+    Stream<Long> streamAllIds();
+
+    /**
+     * Marca a tarefa do dono como excluída em um único UPDATE, sem carregá-la.
+     *
+     * @param id O ID da tarefa.
+     * @param ownerId O ID do dono da tarefa.
+     * @param now O instante da exclusão.
+     * @return 1 se a linha foi marcada; 0 se não existe ou já estava excluída.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Task t set t.deleted = true, t.deletedAt = :now where t.id = :id and t.owner.id = :ownerId and t.deleted = false")
+    int softDelete(@Param("id") Long id, @Param("ownerId") Long ownerId, @Param("now") Instant now);
+
+    /**
+     * Verifica se a tarefa pertence ao dono, incluindo tarefas excluídas logicamente
+     * (a consulta nativa não aplica o filtro {@code fl_deleted = 0}).
+     *
+     * @param id O ID da tarefa.
+     * @param ownerId O ID do dono.
+     * @return 1 se a tarefa existe e é do dono; 0 caso contrário.
+     */
+    @Query(value = "select count(*) from t_ct_task where id_task = :id and owner_id = :ownerId", nativeQuery = true)
+    long countByIdAndOwnerIdIncludingDeleted(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+    /**
+     * Remove definitivamente um lote de linhas excluídas logicamente antes de um instante.
+     *
+     * @param before O instante limite da exclusão lógica.
+     * @param limit A quantidade máxima de linhas removidas.
+     * @return A quantidade de linhas removidas.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "delete from t_ct_task where id_task in (select id_task from t_ct_task where fl_deleted = 1 and dt_deleted < :before fetch first :limit rows only)", nativeQuery = true)
+    int purgeTombstones(@Param("before") Instant before, @Param("limit") int limit);
+
+    /**
+     * Obtém o instante da exclusão lógica mais antiga ainda não removida.
+     *
+     * @return O instante, se houver linhas excluídas logicamente.
+     */
+    @Query(value = "select min(dt_deleted) from t_ct_task where fl_deleted = 1", nativeQuery = true)
+    Optional<Instant> findOldestTombstone();
+
+    /**
+     * Obtém os limites dos blocos do relatório: o primeiro ID de cada grupo de {@code chunkSize}
+     * tarefas do dono, em ordem. Os blocos seguem as linhas do dono, e não a sequência global
+     * de IDs, e a consulta lê apenas o índice IX_CT_TASK_OWNER_ID.
+     *
+     * @param ownerId O ID do dono das tarefas.
+     * @param chunkSize A quantidade de tarefas por bloco.
+     * @return O primeiro ID de cada bloco (vazio se não houver tarefas).
+     */
+    @Query(value = "select id_task from (select id_task, row_number() over (order by id_task) rn from t_ct_task where owner_id = :ownerId and fl_deleted = 0) where mod(rn - 1, :chunkSize) = 0 order by id_task", nativeQuery = true)
+    List<Number> findChunkBoundariesByOwnerId(@Param("ownerId") Long ownerId, @Param("chunkSize") long chunkSize);
+
+    /**
+     * Lê apenas o status e o vencimento das tarefas de um dono em uma faixa de IDs,
+     * com acesso por faixa no índice IX_CT_TASK_OWNER_ID.
+     *
+     * @param ownerId O ID do dono das tarefas.
+     * @param from O primeiro ID da faixa.
+     * @param to O último ID da faixa.
+     * @return Linhas com o status e a data de vencimento.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE))
+    @Query("select t.status, t.dueDate from Task t where t.owner.id = :ownerId and t.id between :from and :to")
+    List<Object[]> findStatusAndDueDateByOwnerIdAndIdBetween(@Param("ownerId") Long ownerId, @Param("from") long from, @Param("to") long to);
 }
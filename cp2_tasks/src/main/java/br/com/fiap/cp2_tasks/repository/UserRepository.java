@@ -1,12 +1,23 @@
 package br.com.fiap.cp2_tasks.repository;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.fiap.cp2_tasks.models.User;
+import jakarta.persistence.QueryHint;
 
 /**
  * Uma interface que define um repositório para entidades de usuários.
@@ -16,6 +27,15 @@ import br.com.fiap.cp2_tasks.models.User;
  */
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /** Tamanho máximo de cada lista IN enviada ao Oracle (limite de 1000 expressões). */
+    int IN_LIST_CHUNK = 500;
+
+    /** Linhas trazidas por ida ao banco nas consultas paginadas (o padrão do driver Oracle é 10). */
+    String PAGE_FETCH_SIZE = "100";
+
+    /** Linhas trazidas por ida ao banco nas leituras em massa (páginas recompostas do cache e varredura de IDs). */
+    String BULK_FETCH_SIZE = "500";
+
     /**
      * Encontra usuários com base em uma parte do nome de usuário.
      *
@@ -23,8 +43,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @param pageable As opções de paginação.
      * @return Uma página de usuários que correspondem à busca.
      */
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = PAGE_FETCH_SIZE), forCounting = false)
     Page<User> findByUsernameContaining(String busca, Pageable pageable);
 
+    /**
+     * Lista os usuários com paginação.
+     *
+     * @param pageable As opções de paginação.
+     * @return Uma página de usuários.
+     */
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = PAGE_FETCH_SIZE), forCounting = false)
+    @Override
+    Page<User> findAll(Pageable pageable);
+
+    /**
+     * Encontra usuários por vários IDs (usado ao recompor páginas guardadas em cache).
+     *
+     * @param ids Os IDs dos usuários.
+     * @return Os usuários encontrados, sem ordem definida.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE))
+    @Override
+    List<User> findAllById(Iterable<Long> ids);
+
     /**
      * Encontra um usuário com base no nome de usuário.
      *
@@ -32,4 +73,68 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return Um objeto Optional que pode conter o usuário encontrado.
      */
     Optional<User> findByUsername(String username);
+
+    /**
+     * Encontra usuários por vários IDs, dividindo a lista em blocos de {@value #IN_LIST_CHUNK}.
+     *
+     * @param ids Os IDs dos usuários.
+     * @return Os usuários encontrados, sem ordem definida.
+     */
+    default List<User> findAllByIdInChunks(List<Long> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK) {
+            users.addAll(findAllById(ids.subList(from, Math.min(from + IN_LIST_CHUNK, ids.size()))));
+        }
+        return users;
+    }
+
+    /**
+     * Obtém o maior ID gravado, sem carregar as entidades.
+     *
+     * @return O maior ID, se houver usuários.
+     */
+    @Query("select max(u.id) from User u")
+    Optional<Long> findMaxId();
+
+    /**
+     * Percorre todos os IDs de usuários em lotes do driver, sem carregar as entidades
+     * nem montar uma lista. Deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @return Os IDs gravados.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE))
+    @Query("select u.id from User u")
+    Stream<Long> streamAllIds();
+
+    /**
+     * Marca o usuário como excluído em um único UPDATE, sem carregá-lo.
+     *
+     * @param id O ID do usuário.
+     * @param now O instante da exclusão.
+     * @return 1 se a linha foi marcada; 0 se não existe ou já estava excluída.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.deleted = true, u.deletedAt = :now where u.id = :id and u.deleted = false")
+    int softDelete(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Remove definitivamente um lote de linhas excluídas logicamente antes de um instante.
+     *
+     * @param before O instante limite da exclusão lógica.
+     * @param limit A quantidade máxima de linhas removidas.
+     * @return A quantidade de linhas removidas.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "delete from t_ct_usuario where id_user in (select id_user from t_ct_usuario where fl_deleted = 1 and dt_deleted < :before fetch first :limit rows only)", nativeQuery = true)
+    int purgeTombstones(@Param("before") Instant before, @Param("limit") int limit);
+
+    /**
+     * Obtém o instante da exclusão lógica mais antiga ainda não removida.
+     *
+     * @return O instante, se houver linhas excluídas logicamente.
+     */
+    @Query(value = "select min(dt_deleted) from t_ct_usuario where fl_deleted = 1", nativeQuery = true)
+    Optional<Instant> findOldestTombstone();
 }
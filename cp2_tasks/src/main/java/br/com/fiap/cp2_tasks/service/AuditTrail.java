@@ -0,0 +1,333 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.fiap.cp2_tasks.config.RequestIdFilter;
+import br.com.fiap.cp2_tasks.models.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registra, fora da requisição, quem criou, alterou ou excluiu tarefas e usuários.
+ * 
+ * <p>Os controladores apenas colocam o evento em uma fila limitada; uma única thread
+ * de gravação junta até {@code batch-size} eventos, ou o que chegar em {@code max-delay-ms},
+ * e os insere em um lote JDBC. Com a fila cheia, quem chama espera no máximo
+ * {@code offer-timeout-ms}; depois disso o evento vai para o arquivo {@code spill-file},
+ * reenviado ao banco periodicamente. Lotes que falham também vão para o arquivo, e no
+ * desligamento a fila é esvaziada antes de a aplicação terminar. Os eventos são contados
+ * na métrica {@code audit.events}, por resultado.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class AuditTrail {
+
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+
+    // A tabela usa IDENTITY, o que impede o Hibernate de agrupar as inserções; por isso o JdbcTemplate
+    private static final String INSERT =
+            "insert into t_ct_audit_event (nm_entity, id_entity, ds_action, id_actor, nm_actor, id_request, dt_event) values (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Value("${api.audit.enabled:true}")
+    boolean enabled;
+
+    @Value("${api.audit.queue-capacity:10000}")
+    int queueCapacity;
+
+    @Value("${api.audit.batch-size:200}")
+    int batchSize;
+
+    @Value("${api.audit.max-delay-ms:1000}")
+    long maxDelayMs;
+
+    @Value("${api.audit.offer-timeout-ms:20}")
+    long offerTimeoutMs;
+
+    @Value("${api.audit.spill-file:audit-spill.jsonl}")
+    Path spillFile;
+
+    @Value("${api.audit.spill-max-bytes:104857600}")
+    long spillMaxBytes;
+
+    @Value("${api.audit.shutdown-timeout-ms:10000}")
+    long shutdownTimeoutMs;
+
+    private BlockingQueue<Entry> queue;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private final Object spillLock = new Object();
+
+    private Counter queued;
+
+    private Counter spilled;
+
+    private Counter dropped;
+
+    private Counter corrupt;
+
+    /** Um evento ainda não gravado, no formato do arquivo de transbordo. */
+    record Entry(String entity, Long entityId, String action, Long actorId, String actorName, String requestId, Instant occurredAt) {}
+
+    @PostConstruct
+    void start() {
+        queued = registry.counter("audit.events", "result", "queued");
+        spilled = registry.counter("audit.events", "result", "spilled");
+        dropped = registry.counter("audit.events", "result", "dropped");
+        corrupt = registry.counter("audit.events", "result", "corrupt");
+        if (!enabled) return;
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Registra uma alteração feita pelo usuário informado na requisição atual.
+     *
+     * @param entity O nome da entidade ({@link ChangeLogService#TASK} ou {@link ChangeLogService#USER}).
+     * @param entityId O ID da entidade alterada.
+     * @param action A operação: {@link #CREATE}, {@link #UPDATE} ou {@link #DELETE}.
+     * @param actor O usuário que fez a alteração.
+     */
+    public void record(String entity, Long entityId, String action, User actor) {
+        if (!enabled) return;
+
+        var entry = new Entry(entity, entityId, action, actor.getId(), actor.getUsername(),
+                MDC.get(RequestIdFilter.MDC_KEY), Instant.now());
+        try {
+            if (running && queue.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                queued.increment();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        spill(List.of(entry));
+    }
+
+    private void writeLoop() {
+        var batch = new ArrayList<Entry>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    if (batch.size() >= batchSize) break;
+                    long remaining = deadline - System.nanoTime();
+                    var next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                flushOrSpill(batch);
+            } catch (InterruptedException e) {
+                // Interrompido no desligamento: grava o lote em andamento e o laço termina de esvaziar a fila
+                running = false;
+                flushOrSpill(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Grava o lote e, se o banco recusar, manda os eventos para o arquivo de transbordo.
+     */
+    private void flushOrSpill(List<Entry> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            flush(batch);
+        } catch (RuntimeException e) {
+            log.warn("evento=auditoria.lote-falhou eventos={}", batch.size(), e);
+            spill(batch);
+        }
+    }
+
+    /**
+     * Insere os eventos em um único lote JDBC.
+     */
+    private void flush(List<Entry> batch) {
+        jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, entry) -> {
+            ps.setString(1, entry.entity());
+            ps.setLong(2, entry.entityId());
+            ps.setString(3, entry.action());
+            ps.setObject(4, entry.actorId());
+            ps.setString(5, entry.actorName());
+            ps.setString(6, entry.requestId());
+            ps.setObject(7, OffsetDateTime.ofInstant(entry.occurredAt(), ZoneOffset.UTC));
+        });
+    }
+
+    /**
+     * Acrescenta os eventos ao arquivo de transbordo, uma linha JSON por evento.
+     * Acima de {@code spill-max-bytes} os eventos são descartados e apenas contados.
+     */
+    private void spill(List<Entry> entries) {
+        synchronized (spillLock) {
+            try {
+                if (Files.exists(spillFile) && Files.size(spillFile) >= spillMaxBytes) {
+                    dropped.increment(entries.size());
+                    log.error("evento=auditoria.descartada eventos={} motivo=arquivo-cheio", entries.size());
+                    return;
+                }
+                var lines = new ArrayList<String>(entries.size());
+                for (var entry : entries) lines.add(objectMapper.writeValueAsString(entry));
+                Files.write(spillFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                spilled.increment(entries.size());
+            } catch (IOException e) {
+                dropped.increment(entries.size());
+                log.error("evento=auditoria.descartada eventos={} motivo=falha-arquivo", entries.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Reenvia ao banco os eventos do arquivo de transbordo. O arquivo é renomeado antes da
+     * leitura, para que novos transbordos vão para um arquivo novo, e só é apagado depois
+     * que todos os eventos foram gravados na mesma transação. Linhas ilegíveis vão para o
+     * arquivo {@code .corrupt} e são contadas em {@code audit.events{result=corrupt}}.
+     */
+    @Scheduled(fixedDelayString = "${api.audit.replay-interval-ms:30000}", initialDelayString = "${api.audit.replay-interval-ms:30000}")
+    void replaySpill() {
+        if (!enabled) return;
+
+        var replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replaying");
+        try {
+            synchronized (spillLock) {
+                if (!Files.exists(replaying)) {
+                    if (!Files.exists(spillFile)) return;
+                    Files.move(spillFile, replaying, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+
+            var invalidLines = new ArrayList<String>();
+            transactionTemplate.executeWithoutResult(status -> {
+                invalidLines.clear();
+                try (BufferedReader reader = Files.newBufferedReader(replaying, StandardCharsets.UTF_8)) {
+                    var batch = new ArrayList<Entry>(batchSize);
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank()) continue;
+                        var entry = parse(line);
+                        if (entry == null) {
+                            invalidLines.add(line);
+                            continue;
+                        }
+                        batch.add(entry);
+                        if (batch.size() == batchSize) {
+                            flush(batch);
+                            batch.clear();
+                        }
+                    }
+                    if (!batch.isEmpty()) flush(batch);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            // Linhas ilegíveis (por exemplo, truncadas por uma queda no meio da escrita) são separadas
+            // para análise, em vez de travar os próximos reenvios
+            if (!invalidLines.isEmpty()) {
+                var corruptFile = spillFile.resolveSibling(spillFile.getFileName() + ".corrupt");
+                Files.write(corruptFile, invalidLines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                corrupt.increment(invalidLines.size());
+                log.error("evento=auditoria.linhas-invalidas linhas={} arquivo={}", invalidLines.size(), corruptFile);
+            }
+
+            Files.delete(replaying);
+            log.info("evento=auditoria.reenviada arquivo={}", replaying);
+        } catch (IOException | RuntimeException e) {
+            log.warn("evento=auditoria.reenvio-falhou arquivo={}", replaying, e);
+        }
+    }
+
+    /**
+     * Lê um evento do arquivo de transbordo.
+     *
+     * @return O evento, ou nulo se a linha estiver truncada ou sem os campos obrigatórios.
+     */
+    private Entry parse(String line) {
+        try {
+            var entry = objectMapper.readValue(line, Entry.class);
+            boolean complete = entry.entity() != null && entry.entityId() != null
+                    && entry.action() != null && entry.occurredAt() != null;
+            return complete ? entry : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Para de aceitar eventos na fila e espera a gravação do que já está nela.
+     * O que não for gravado a tempo vai para o arquivo de transbordo.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) return;
+        running = false;
+        writer.join(shutdownTimeoutMs);
+
+        var remaining = new ArrayList<Entry>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) spill(remaining);
+    }
+}
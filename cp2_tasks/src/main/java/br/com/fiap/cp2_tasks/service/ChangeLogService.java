@@ -0,0 +1,192 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.fiap.cp2_tasks.models.ChangeLog;
+import br.com.fiap.cp2_tasks.models.Task;
+import br.com.fiap.cp2_tasks.models.User;
+import br.com.fiap.cp2_tasks.repository.ChangeLogRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Um serviço que propaga as alterações de tarefas e usuários entre as instâncias da aplicação.
+ * 
+ * <p>Cada gravação descarta os caches locais e acrescenta uma linha ao registro de alterações.
+ * Cada instância lê periodicamente, em lotes e pela chave primária, as linhas acima do último
+ * ID lido e descarta as entradas correspondentes dos seus caches (páginas de consulta,
+ * respostas guardadas do bulkhead, usuários autenticados e índice de IDs inexistentes).
+ * Como IDs podem ser confirmados fora de ordem, os buracos na sequência são consultados de
+ * novo por um tempo limitado. Linhas antigas são removidas pela compactação.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class ChangeLogService {
+
+    public static final String TASK = "task";
+
+    public static final String USER = "user";
+
+    /** Quantidade máxima de buracos na sequência acompanhados ao mesmo tempo. */
+    private static final int MAX_GAPS = 1_000;
+
+    @Autowired
+    ChangeLogRepository repository;
+
+    @Autowired
+    QueryPageCache queryPageCache;
+
+    @Autowired
+    DatabaseBulkhead databaseBulkhead;
+
+    @Autowired
+    NegativeLookup negativeLookup;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Value("${api.change-log.enabled:true}")
+    boolean enabled;
+
+    @Value("${api.change-log.batch-size:500}")
+    int batchSize;
+
+    @Value("${api.change-log.gap-timeout-ms:10000}")
+    long gapTimeoutMs;
+
+    @Value("${api.change-log.retention-minutes:60}")
+    long retentionMinutes;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final AtomicLong version = new AtomicLong();
+
+    /** O último ID lido; negativo até a primeira leitura, que começa do fim do registro. */
+    private long highWater = -1;
+
+    /** IDs ainda não vistos abaixo do último ID lido, com o instante em que foram notados. */
+    private final Map<Long, Long> gaps = new HashMap<>();
+
+    /**
+     * Registra a alteração de uma entidade, descartando os caches desta instância
+     * e avisando as demais.
+     *
+     * @param entity O nome da entidade ({@link #TASK} ou {@link #USER}).
+     * @param id O ID da entidade alterada.
+     */
+    public void publish(String entity, Long id) {
+        evict(entity, List.of(id));
+        if (!enabled) return;
+
+        long next = version.updateAndGet(current -> Math.max(current + 1, System.currentTimeMillis()));
+        try {
+            repository.save(new ChangeLog(null, entity, id, next, instanceId, Instant.now()));
+        } catch (RuntimeException e) {
+            // A gravação principal já foi feita; as outras instâncias ficam desatualizadas até a expiração dos caches
+            log.warn("Não foi possível registrar a alteração de {} {}", entity, id, e);
+        }
+    }
+
+    /**
+     * Lê as alterações feitas por outras instâncias e descarta as entradas locais correspondentes.
+     */
+    @Scheduled(fixedDelayString = "${api.change-log.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (!enabled) return;
+        try {
+            if (highWater < 0) {
+                highWater = repository.findMaxId();
+                return;
+            }
+
+            var changed = new HashMap<String, Set<Long>>();
+            if (!gaps.isEmpty()) recheckGaps(changed);
+
+            List<ChangeLog> batch;
+            do {
+                batch = repository.findByIdGreaterThanOrderByIdAsc(highWater, PageRequest.of(0, batchSize));
+                for (var change : batch) {
+                    trackGaps(change.getId());
+                    highWater = change.getId();
+                    collect(change, changed);
+                }
+            } while (batch.size() == batchSize);
+
+            changed.forEach(this::evict);
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível ler o registro de alterações: {}", e.toString());
+        }
+    }
+
+    /**
+     * Remove as alterações mais antigas que o período de retenção.
+     */
+    @Scheduled(fixedDelayString = "${api.change-log.compaction-interval-ms:600000}", initialDelayString = "${api.change-log.compaction-interval-ms:600000}")
+    public void compact() {
+        if (!enabled) return;
+        try {
+            int removed = repository.deleteOlderThan(Instant.now().minus(Duration.ofMinutes(retentionMinutes)));
+            if (removed > 0) log.info("Registro de alterações compactado: {} linhas removidas", removed);
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível compactar o registro de alterações: {}", e.toString());
+        }
+    }
+
+    private void trackGaps(long id) {
+        long now = System.currentTimeMillis();
+        for (long missing = highWater + 1; missing < id && gaps.size() < MAX_GAPS; missing++) {
+            gaps.put(missing, now);
+        }
+    }
+
+    private void recheckGaps(Map<String, Set<Long>> changed) {
+        for (var change : repository.findByIdIn(gaps.keySet())) {
+            gaps.remove(change.getId());
+            collect(change, changed);
+        }
+        long expired = System.currentTimeMillis() - gapTimeoutMs;
+        gaps.values().removeIf(noticedAt -> noticedAt < expired);
+    }
+
+    private void collect(ChangeLog change, Map<String, Set<Long>> changed) {
+        if (!instanceId.equals(change.getOrigin())) {
+            changed.computeIfAbsent(change.getEntity(), entity -> new HashSet<>()).add(change.getEntityId());
+        }
+    }
+
+    private void evict(String entity, Collection<Long> ids) {
+        switch (entity) {
+            case TASK -> {
+                queryPageCache.invalidate(TASK);
+                databaseBulkhead.evictIf("tarefas", value -> value instanceof Task task && ids.contains(task.getId()));
+                ids.forEach(negativeLookup::addTask);
+            }
+            case USER -> {
+                // As tarefas de um usuário excluído são removidas em cascata pelo banco
+                queryPageCache.invalidate(USER);
+                queryPageCache.invalidate(TASK);
+                databaseBulkhead.evictIf("usuarios", value -> value instanceof User user && ids.contains(user.getId()));
+                tokenService.forget(ids);
+                ids.forEach(negativeLookup::addUser);
+            }
+            default -> log.warn("Entidade desconhecida no registro de alterações: {}", entity);
+        }
+    }
+}
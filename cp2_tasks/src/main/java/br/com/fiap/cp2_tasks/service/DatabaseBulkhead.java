@@ -0,0 +1,291 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.fiap.cp2_tasks.config.BulkheadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Isola as leituras no banco em compartimentos com limite de concorrência e disjuntor,
+ * servindo a última resposta conhecida quando o banco está lento ou indisponível.
+ * 
+ * <p>Cada compartimento (por exemplo, "tarefas" e "usuarios") tem seu próprio semáforo,
+ * portanto uma lentidão em um repositório não ocupa todas as threads do Tomcat. Falhas e leituras
+ * lentas seguidas abrem o disjuntor; depois do intervalo configurado, uma única leitura de teste
+ * decide se ele fecha. Leituras iguais simultâneas podem ser agrupadas: só a primeira ocupa
+ * uma vaga no compartimento. Enquanto a leitura não é possível, a última resposta de sucesso para a
+ * mesma chave é devolvida com os cabeçalhos {@code Warning: 110} e {@code Age}; sem ela, a
+ * resposta é 503. As chamadas são contadas na métrica {@code bulkhead.calls}, por compartimento
+ * e resultado ({@code success}, {@code failure}, {@code rejected} ou {@code stale}).</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class DatabaseBulkhead {
+
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    @Autowired
+    BulkheadProperties properties;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Autowired
+    SingleFlight singleFlight;
+
+    private final ConcurrentHashMap<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    private record Stored(Object value, long storedAt) {}
+
+    /**
+     * Executa a leitura dentro do compartimento, guardando o resultado para uso como resposta desatualizada.
+     *
+     * @param compartment O nome do compartimento.
+     * @param key A chave da leitura, que deve identificar o dono dos dados quando houver.
+     * @param loader A leitura a ser executada.
+     * @return O resultado da leitura, ou a última resposta conhecida se a leitura não for possível.
+     * @throws ResponseStatusException Se a leitura não for possível e não houver resposta guardada (503).
+     */
+    public <T> T read(String compartment, Object key, Supplier<T> loader) {
+        return read(compartment, null, key, loader);
+    }
+
+    /**
+     * Executa a leitura dentro do compartimento, agrupando as leituras simultâneas da mesma chave
+     * com o {@link SingleFlight}: só a primeira ocupa uma vaga no compartimento, e as demais
+     * esperam o resultado dela fora do semáforo. A resposta desatualizada é decidida por quem chamou.
+     *
+     * @param compartment O nome do compartimento.
+     * @param group O grupo do {@link SingleFlight}, ou {@code null} para não agrupar.
+     * @param key A chave da leitura, que deve identificar o dono dos dados quando houver.
+     * @param loader A leitura a ser executada.
+     * @return O resultado da leitura, ou a última resposta conhecida se a leitura não for possível.
+     * @throws ResponseStatusException Se a leitura não for possível e não houver resposta guardada (503).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(String compartment, String group, Object key, Supplier<T> loader) {
+        if (!properties.isEnabled()) return shared(group, key, loader);
+
+        var target = compartments.computeIfAbsent(compartment, this::newCompartment);
+        try {
+            return shared(group, key, () -> load(target, key, loader));
+        } catch (ResponseStatusException e) {
+            // O banco respondeu (por exemplo, 404): não há o que servir no lugar
+            if (!e.getStatusCode().is5xxServerError()) throw e;
+            return (T) stale(target, key, e);
+        } catch (RuntimeException e) {
+            return (T) stale(target, key, e);
+        }
+    }
+
+    /**
+     * Executa a leitura dentro do compartimento sem guardar nem servir respostas desatualizadas,
+     * para leituras em que um valor antigo não é aceitável (como o usuário de um token, que pode
+     * ter sido excluído em outra instância enquanto o banco está indisponível).
+     *
+     * @param compartment O nome do compartimento.
+     * @param group O grupo do {@link SingleFlight}, ou {@code null} para não agrupar.
+     * @param key A chave da leitura dentro do grupo.
+     * @param loader A leitura a ser executada.
+     * @return O resultado da leitura.
+     * @throws ResponseStatusException Se a leitura não for possível (503).
+     */
+    public <T> T readFresh(String compartment, String group, Object key, Supplier<T> loader) {
+        if (!properties.isEnabled()) return shared(group, key, loader);
+
+        var target = compartments.computeIfAbsent(compartment, this::newCompartment);
+        try {
+            return shared(group, key, () -> load(target, null, loader));
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Banco de dados indisponível", e);
+        }
+    }
+
+    /**
+     * Descarta as respostas guardadas cujo valor atende ao filtro.
+     *
+     * @param compartment O nome do compartimento.
+     * @param filter O filtro aplicado a cada valor guardado.
+     */
+    public void evictIf(String compartment, Predicate<Object> filter) {
+        var target = compartments.get(compartment);
+        if (target != null) target.forgetIf(filter);
+    }
+
+    private <T> T shared(String group, Object key, Supplier<T> loader) {
+        return group == null ? loader.get() : singleFlight.execute(group, key, loader);
+    }
+
+    /**
+     * Faz a leitura ocupando uma vaga do compartimento e atualiza o disjuntor e as respostas guardadas.
+     */
+    private <T> T load(Compartment target, Object key, Supplier<T> loader) {
+        if (!target.allowRequest() || !target.acquire(properties.getAcquireTimeoutMs())) {
+            count(target.name, "rejected");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Banco de dados indisponível");
+        }
+
+        long start = System.nanoTime();
+        try {
+            T value = loader.get();
+            target.onResult(System.nanoTime() - start);
+            if (value != null && key != null) target.remember(key, value);
+            count(target.name, "success");
+            return value;
+        } catch (ResponseStatusException e) {
+            if (e.getStatusCode().is5xxServerError()) {
+                target.onFailure();
+                count(target.name, "failure");
+            } else {
+                // O banco respondeu (por exemplo, 404): o que estava guardado não vale mais
+                target.onResult(System.nanoTime() - start);
+                if (key != null) target.forget(key);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            target.onFailure();
+            count(target.name, "failure");
+            log.warn("Falha na leitura do compartimento {}: {}", target.name, e.toString());
+            throw e;
+        } finally {
+            target.release();
+        }
+    }
+
+    private Object stale(Compartment target, Object key, RuntimeException cause) {
+        var stored = target.recall(key);
+        long age = stored == null ? 0 : (System.currentTimeMillis() - stored.storedAt()) / 1_000;
+        if (stored == null || age > properties.getStaleMaxAgeSeconds()) {
+            throw cause;
+        }
+
+        count(target.name, "stale");
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getResponse() != null) {
+            attributes.getResponse().setHeader(HttpHeaders.WARNING, STALE_WARNING);
+            attributes.getResponse().setHeader(HttpHeaders.AGE, String.valueOf(age));
+        }
+        return stored.value();
+    }
+
+    private void count(String compartment, String result) {
+        registry.counter("bulkhead.calls", "compartment", compartment, "result", result).increment();
+    }
+
+    private Compartment newCompartment(String name) {
+        int permits = properties.getMaxConcurrent().getOrDefault(name, properties.getDefaultMaxConcurrent());
+        return new Compartment(name, permits);
+    }
+
+    /**
+     * Um compartimento: semáforo, estado do disjuntor e últimas respostas conhecidas.
+     */
+    private class Compartment {
+
+        final String name;
+
+        final Semaphore permits;
+
+        /** Falhas seguidas; ao atingir o limite, o disjuntor abre. */
+        final AtomicInteger failures = new AtomicInteger();
+
+        /** Instante (nanoTime) a partir do qual uma leitura de teste é permitida; 0 quando fechado. */
+        final AtomicLong openUntil = new AtomicLong();
+
+        final LinkedHashMap<Object, Stored> lastKnown = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Stored> eldest) {
+                return size() > properties.getStaleMaxEntries();
+            }
+        };
+
+        Compartment(String name, int permits) {
+            this.name = name;
+            this.permits = new Semaphore(permits);
+        }
+
+        boolean allowRequest() {
+            long until = openUntil.get();
+            if (until == 0) return true;
+            if (System.nanoTime() < until) return false;
+            // Meio-aberto: apenas quem adiar a próxima tentativa faz a leitura de teste
+            return openUntil.compareAndSet(until, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getOpenMs()));
+        }
+
+        boolean acquire(long timeoutMs) {
+            try {
+                return permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        void release() {
+            permits.release();
+        }
+
+        void onResult(long elapsedNanos) {
+            if (elapsedNanos > TimeUnit.MILLISECONDS.toNanos(properties.getSlowCallMs())) {
+                onFailure();
+                return;
+            }
+            failures.set(0);
+            if (openUntil.getAndSet(0) != 0) log.info("Disjuntor do compartimento {} fechado", name);
+        }
+
+        void onFailure() {
+            if (failures.incrementAndGet() >= properties.getFailureThreshold()) {
+                long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getOpenMs());
+                if (openUntil.getAndSet(until) == 0) log.warn("Disjuntor do compartimento {} aberto", name);
+            }
+        }
+
+        void remember(Object key, Object value) {
+            var stored = new Stored(value, System.currentTimeMillis());
+            synchronized (lastKnown) {
+                lastKnown.put(key, stored);
+            }
+        }
+
+        Stored recall(Object key) {
+            synchronized (lastKnown) {
+                return lastKnown.get(key);
+            }
+        }
+
+        void forget(Object key) {
+            synchronized (lastKnown) {
+                lastKnown.remove(key);
+            }
+        }
+
+        void forgetIf(Predicate<Object> filter) {
+            synchronized (lastKnown) {
+                lastKnown.values().removeIf(stored -> filter.test(stored.value()));
+            }
+        }
+    }
+}
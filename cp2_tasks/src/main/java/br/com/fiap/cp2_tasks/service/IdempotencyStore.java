@@ -0,0 +1,155 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Um armazenamento limitado, com expiração, das respostas associadas a cada Idempotency-Key.
+ * 
+ * <p>Cada chave guarda um {@link CompletableFuture}: a primeira requisição executa e
+ * completa o futuro, e as duplicadas que chegam enquanto ela está em andamento
+ * aguardam o mesmo resultado em vez de executar de novo.</p>
+ * 
+ * <p>As chaves ficam também em uma fila, na ordem em que foram registradas. Acima de
+ * {@code max-entries}, uma limpeza em segundo plano descarta as mais antigas já concluídas,
+ * de modo que o registro nunca é recusado e a requisição não percorre o armazenamento;
+ * a limpeza periódica remove as expiradas a partir do início da fila.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Service
+public class IdempotencyStore {
+
+    @Value("${api.idempotency.ttl-seconds:86400}")
+    long ttlSeconds;
+
+    @Value("${api.idempotency.max-entries:10000}")
+    int maxEntries;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /** Os registros na ordem de criação; podem incluir registros já substituídos ou removidos. */
+    private final ConcurrentLinkedQueue<Claimed> order = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    private record Claimed(String key, Entry entry) {}
+
+    /**
+     * Uma resposta armazenada para ser repetida.
+     *
+     * @param status O status HTTP.
+     * @param headers Os cabeçalhos relevantes (Location, Content-Type).
+     * @param body O corpo da resposta.
+     */
+    public record StoredResponse(int status, Map<String, String> headers, byte[] body) {}
+
+    /**
+     * Uma chave registrada: o resultado (futuro), a impressão digital da requisição e o instante de criação.
+     *
+     * @param response A resposta, completada com nulo se a execução for abandonada.
+     * @param fingerprint O hash do método e do corpo da requisição que registrou a chave.
+     * @param createdAt O instante de criação, em nanossegundos.
+     */
+    public record Entry(CompletableFuture<StoredResponse> response, String fingerprint, long createdAt) {
+
+        boolean isExpired(long now, long ttlNanos) {
+            return now - createdAt > ttlNanos;
+        }
+    }
+
+    /**
+     * Registra a chave para a requisição atual ou devolve o registro já existente.
+     *
+     * @param key A chave de idempotência, já qualificada pelo cliente e rota.
+     * @param mine O registro que a requisição atual quer criar.
+     * @return O registro existente, ou {@code mine} se a requisição atual passou a ser a dona.
+     */
+    public Entry claim(String key, Entry mine) {
+        long now = System.nanoTime();
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+
+        var entry = entries.compute(key, (k, current) ->
+            (current == null || current.isExpired(now, ttlNanos)) ? mine : current);
+        if (entry == mine) {
+            order.add(new Claimed(key, mine));
+            if (queued.incrementAndGet() > maxEntries) trimInBackground();
+        }
+        return entry;
+    }
+
+    /**
+     * Guarda a resposta da requisição dona da chave e libera as duplicadas que aguardam.
+     *
+     * @param entry O registro da requisição dona.
+     * @param response A resposta a ser repetida.
+     */
+    public void complete(Entry entry, StoredResponse response) {
+        entry.response().complete(response);
+    }
+
+    /**
+     * Remove a chave após uma falha, permitindo que uma nova tentativa seja executada.
+     *
+     * @param key A chave de idempotência.
+     * @param entry O registro da requisição dona.
+     */
+    public void abandon(String key, Entry entry) {
+        entries.remove(key, entry);
+        entry.response().complete(null);
+    }
+
+    private void trimInBackground() {
+        if (trimming.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::trim).whenComplete((ignored, error) -> trimming.set(false));
+        }
+    }
+
+    /**
+     * Descarta os registros mais antigos já concluídos até voltar ao limite. Os que ainda estão
+     * em andamento voltam para o fim da fila.
+     */
+    synchronized void trim() {
+        for (int remaining = queued.get(); remaining > 0 && queued.get() > maxEntries; remaining--) {
+            var head = order.poll();
+            if (head == null) return;
+            queued.decrementAndGet();
+            if (entries.get(head.key()) != head.entry()) continue;
+
+            if (head.entry().response().isDone()) {
+                entries.remove(head.key(), head.entry());
+            } else {
+                order.add(head);
+                queued.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Remove as chaves expiradas do início da fila, parando no primeiro registro ainda válido.
+     */
+    @Scheduled(fixedDelayString = "${api.idempotency.sweep-interval-ms:60000}")
+    public synchronized void evictExpired() {
+        long now = System.nanoTime();
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        for (var head = order.peek(); head != null; head = order.peek()) {
+            boolean current = entries.get(head.key()) == head.entry();
+            if (current && !(head.entry().response().isDone() && head.entry().isExpired(now, ttlNanos))) return;
+            order.poll();
+            queued.decrementAndGet();
+            if (current) entries.remove(head.key(), head.entry());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.fiap.cp2_tasks.repository.TaskRepository;
+import br.com.fiap.cp2_tasks.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Um serviço que responde, sem consultar o banco, quando um ID certamente não existe.
+ * 
+ * <p>Mantém em memória um mapa de bits dos IDs existentes de tarefas e usuários,
+ * reconstruído periodicamente e atualizado a cada inserção. IDs acima do maior ID
+ * conhecido (menos uma margem de segurança, para inserções de outras instâncias ainda
+ * não confirmadas na reconstrução) são sempre tratados como possivelmente existentes.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class NegativeLookup {
+
+    @Autowired
+    TaskRepository taskRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Value("${api.negative-lookup.enabled:true}")
+    boolean enabled;
+
+    @Value("${api.negative-lookup.guard-band:1000}")
+    long guardBand;
+
+    @Value("${api.negative-lookup.max-id:268435456}")
+    long maxId;
+
+    private final IdIndex tasks = new IdIndex();
+
+    private final IdIndex users = new IdIndex();
+
+    private Counter taskHits;
+
+    private Counter userHits;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        taskHits = registry.counter("negativelookup.hits", "entity", "task");
+        userHits = registry.counter("negativelookup.hits", "entity", "user");
+    }
+
+    /**
+     * Verifica se a tarefa certamente não existe.
+     *
+     * @param id O ID da tarefa.
+     * @return {@code true} se o ID não existe; {@code false} se pode existir.
+     */
+    public boolean isMissingTask(long id) {
+        return isMissing(tasks, taskHits, id);
+    }
+
+    /**
+     * Verifica se o usuário certamente não existe.
+     *
+     * @param id O ID do usuário.
+     * @return {@code true} se o ID não existe; {@code false} se pode existir.
+     */
+    public boolean isMissingUser(long id) {
+        return isMissing(users, userHits, id);
+    }
+
+    /**
+     * Registra uma tarefa recém-gravada.
+     *
+     * @param id O ID da tarefa.
+     */
+    public void addTask(long id) {
+        tasks.add(id);
+    }
+
+    /**
+     * Registra um usuário recém-gravado.
+     *
+     * @param id O ID do usuário.
+     */
+    public void addUser(long id) {
+        users.add(id);
+    }
+
+    /**
+     * Reconstrói os mapas de bits a partir dos IDs gravados no banco, lidos em fluxo
+     * dentro de uma transação somente leitura.
+     */
+    @Scheduled(initialDelayString = "${api.negative-lookup.initial-delay-ms:0}",
+               fixedDelayString = "${api.negative-lookup.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!enabled) return;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                tasks.rebuild(taskRepository.findMaxId().orElse(0L), taskRepository::streamAllIds, guardBand, maxId);
+                users.rebuild(userRepository.findMaxId().orElse(0L), userRepository::streamAllIds, guardBand, maxId);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível reconstruir o índice de IDs existentes", e);
+        }
+    }
+
+    private boolean isMissing(IdIndex index, Counter hits, long id) {
+        if (!enabled || index.mightContain(id)) return false;
+        hits.increment();
+        return true;
+    }
+
+    /**
+     * Um mapa de bits imutável dos IDs lidos na última reconstrução, mais um conjunto
+     * com os IDs inseridos depois dela.
+     */
+    static class IdIndex {
+
+        private record Snapshot(long[] words, long highWater) {
+
+            boolean contains(long id) {
+                int word = (int) (id >>> 6);
+                return word < words.length && (words[word] & (1L << id)) != 0;
+            }
+        }
+
+        /** Sem reconstrução concluída, nenhum ID é considerado ausente. */
+        private volatile Snapshot snapshot = new Snapshot(new long[0], 0);
+
+        private final Set<Long> recent = ConcurrentHashMap.newKeySet();
+
+        boolean mightContain(long id) {
+            var current = snapshot;
+            return id <= 0 || id > current.highWater() || current.contains(id) || recent.contains(id);
+        }
+
+        void add(long id) {
+            // Guardado mesmo acima do limite atual: a próxima reconstrução pode ter lido o banco antes do commit
+            recent.add(id);
+        }
+
+        /**
+         * Reconstrói o mapa de bits. O maior ID é verificado antes de qualquer leitura:
+         * acima de {@code maxId} os IDs nem são lidos e o atalho é desligado.
+         */
+        void rebuild(long max, Supplier<Stream<Long>> ids, long guardBand, long maxId) {
+            if (max > maxId) {
+                // Tabela grande demais para o mapa de bits: desliga o atalho
+                snapshot = new Snapshot(new long[0], 0);
+                recent.clear();
+                return;
+            }
+
+            long[] words = new long[(int) (max >>> 6) + 1];
+            try (var stream = ids.get()) {
+                stream.forEach(id -> {
+                    // IDs gravados depois da leitura do maior ID ficam no conjunto recente
+                    if (id > 0 && id <= max) words[(int) (id >>> 6)] |= 1L << id;
+                });
+            }
+            var fresh = new Snapshot(words, Math.max(0, max - guardBand));
+            snapshot = fresh;
+            // Abaixo do limite o mapa de bits é definitivo, inclusive para IDs já excluídos
+            recent.removeIf(id -> id <= fresh.highWater());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Um cache das páginas de listagem e busca, guardando apenas os IDs e o total.
+ * 
+ * <p>A chave é formada pelos parâmetros normalizados da consulta. Cada entidade tem um
+ * contador de geração, incrementado a cada gravação; páginas de gerações anteriores são
+ * descartadas. As entidades continuam sendo carregadas pelo ID a cada requisição,
+ * o que evita a busca com LIKE e o COUNT. A remoção segue a ordem de uso (LRU),
+ * limitada pela quantidade de páginas e pela memória estimada dos IDs.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Service
+public class QueryPageCache {
+
+    /** Memória estimada de cada página além dos IDs (chave, entrada e nó do mapa). */
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    @Value("${api.query-cache.enabled:true}")
+    boolean enabled;
+
+    @Value("${api.query-cache.max-entries:1000}")
+    int maxEntries;
+
+    @Value("${api.query-cache.max-bytes:8388608}")
+    long maxBytes;
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final LinkedHashMap<Key, Entry> pages = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long usedBytes;
+
+    private record Key(String entity, Object scope, String busca, int page, int size, String sort) {}
+
+    private record Entry(long generation, long[] ids, long total) {
+
+        long bytes() {
+            return ENTRY_OVERHEAD_BYTES + ids.length * 8L;
+        }
+    }
+
+    /**
+     * Busca uma página no cache ou executa a consulta e guarda o resultado.
+     *
+     * @param entity O nome da entidade, usado também como contador de geração.
+     * @param scope O escopo da consulta (por exemplo, o dono das tarefas), ou nulo.
+     * @param busca O termo de busca já normalizado por {@link #normalize(String)}, ou nulo;
+     *        deve ser o mesmo termo usado pela consulta.
+     * @param pageable As opções de paginação e ordenação.
+     * @param query A consulta original, executada em caso de ausência no cache.
+     * @param loadByIds Carrega as entidades pelos IDs guardados.
+     * @param idOf Obtém o ID de uma entidade.
+     * @return A página, vinda do cache ou da consulta.
+     */
+    public <T> Page<T> findPage(String entity, Object scope, String busca, Pageable pageable,
+            Supplier<Page<T>> query, Function<List<Long>, List<T>> loadByIds, Function<T, Long> idOf) {
+        if (!enabled || pageable.isUnpaged()) return query.get();
+
+        var key = new Key(entity, scope, busca, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+        var generation = generations.computeIfAbsent(entity, name -> new AtomicLong());
+
+        Entry cached;
+        synchronized (pages) {
+            cached = pages.get(key);
+        }
+        if (cached != null && cached.generation() == generation.get()) {
+            return new PageImpl<>(hydrate(cached.ids(), loadByIds, idOf), pageable, cached.total());
+        }
+
+        // A geração é lida antes da consulta: uma gravação concorrente invalida o que for guardado
+        long before = generation.get();
+        var page = query.get();
+        long[] ids = page.getContent().stream().mapToLong(idOf::apply).toArray();
+        put(key, new Entry(before, ids, page.getTotalElements()));
+        return page;
+    }
+
+    /**
+     * Normaliza o termo de busca: remove os espaços das pontas e trata termos em branco como
+     * ausentes. O controlador usa o resultado tanto na consulta quanto na chave do cache,
+     * para que termos diferentes nunca compartilhem a mesma página.
+     *
+     * @param busca O termo de busca informado, ou nulo.
+     * @return O termo normalizado, ou nulo.
+     */
+    public static String normalize(String busca) {
+        return (busca == null || busca.isBlank()) ? null : busca.trim();
+    }
+
+    /**
+     * Invalida todas as páginas guardadas de uma entidade.
+     *
+     * @param entity O nome da entidade.
+     */
+    public void invalidate(String entity) {
+        generations.computeIfAbsent(entity, name -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void put(Key key, Entry entry) {
+        synchronized (pages) {
+            var previous = pages.put(key, entry);
+            if (previous != null) usedBytes -= previous.bytes();
+            usedBytes += entry.bytes();
+
+            var eldest = pages.entrySet().iterator();
+            while ((pages.size() > maxEntries || usedBytes > maxBytes) && eldest.hasNext()) {
+                usedBytes -= eldest.next().getValue().bytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    private <T> List<T> hydrate(long[] ids, Function<List<Long>, List<T>> loadByIds, Function<T, Long> idOf) {
+        var idList = new ArrayList<Long>(ids.length);
+        for (long id : ids) idList.add(id);
+
+        var found = new HashMap<Long, T>(ids.length * 2);
+        for (T entity : loadByIds.apply(idList)) {
+            found.put(idOf.apply(entity), entity);
+        }
+
+        var ordered = new ArrayList<T>(ids.length);
+        for (long id : ids) {
+            var entity = found.get(id);
+            if (entity != null) ordered.add(entity);
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.fiap.cp2_tasks.config.RateLimitProperties;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Um serviço de limitação de requisições no modelo de balde de fichas.
+ * 
+ * <p>Cada balde é guardado como um único {@link AtomicLong} com o instante teórico
+ * de chegada (GCRA), atualizado por CAS sem bloqueios. Um balde cujo instante já
+ * passou está cheio e equivale a um balde inexistente, por isso pode ser descartado.
+ * Com {@code max-entries} baldes em memória, novos clientes são recusados até a
+ * limpeza periódica, ou a disparada em segundo plano, liberar espaço.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Service
+public class RateLimiter {
+
+    @Autowired
+    RateLimitProperties properties;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private Rule defaultRule;
+
+    private Rule ipRule;
+
+    /**
+     * Uma regra de limite já convertida para nanossegundos.
+     *
+     * @param name O nome da rota.
+     * @param method O método HTTP, ou nulo para qualquer método.
+     * @param path O caminho exato, ou nulo para qualquer caminho.
+     * @param intervalNanos O intervalo entre fichas.
+     * @param toleranceNanos A tolerância correspondente à rajada.
+     */
+    public record Rule(String name, String method, String path, long intervalNanos, long toleranceNanos) {
+
+        static Rule of(String name, String method, String path, int burst, int perMinute) {
+            long interval = TimeUnit.MINUTES.toNanos(1) / Math.max(perMinute, 1);
+            return new Rule(name, method, path, interval, interval * Math.max(burst, 1));
+        }
+
+        boolean matches(String requestMethod, String requestPath) {
+            return (method == null || method.equalsIgnoreCase(requestMethod))
+                && (path == null || path.equals(requestPath));
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        properties.getRoutes().forEach((name, route) ->
+            rules.add(Rule.of(name, route.getMethod(), route.getPath(), route.getBurst(), route.getPerMinute())));
+        defaultRule = Rule.of("default", null, null, properties.getDefaultBurst(), properties.getDefaultPerMinute());
+        ipRule = Rule.of("ip", null, null, properties.getIpBurst(), properties.getIpPerMinute());
+    }
+
+    /**
+     * A regra por IP, aplicada a todas as rotas antes da autenticação.
+     *
+     * @return A regra por IP.
+     */
+    public Rule ipRule() {
+        return ipRule;
+    }
+
+    /**
+     * Encontra a regra aplicável à requisição.
+     *
+     * @param method O método HTTP da requisição.
+     * @param path O caminho da requisição.
+     * @return A regra da rota, ou a regra padrão.
+     */
+    public Rule resolve(String method, String path) {
+        for (Rule rule : rules) {
+            if (rule.matches(method, path)) return rule;
+        }
+        return defaultRule;
+    }
+
+    /**
+     * Tenta consumir uma ficha do balde do cliente.
+     *
+     * @param rule A regra da rota.
+     * @param client O identificador do cliente (usuário ou IP).
+     * @return Zero se a requisição foi aceita, ou os nanossegundos até haver ficha disponível.
+     */
+    public long tryAcquire(Rule rule, String client) {
+        if (!properties.isEnabled()) return 0;
+
+        long now = System.nanoTime();
+        String key = rule.name() + '|' + client;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxEntries()) {
+                // Sem espaço: a limpeza roda fora da requisição e o novo cliente espera um intervalo
+                sweepInBackground();
+                return rule.intervalNanos();
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + rule.intervalNanos();
+            long excess = newTat - now - rule.toleranceNanos();
+            if (excess > 0) return excess;
+            if (bucket.compareAndSet(tat, newTat)) return 0;
+        }
+    }
+
+    /**
+     * Agenda uma limpeza dos baldes ociosos em segundo plano, se ainda não houver uma em andamento.
+     */
+    private void sweepInBackground() {
+        if (sweeping.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::evictIdle).whenComplete((ignored, error) -> sweeping.set(false));
+        }
+    }
+
+    /**
+     * Remove os baldes ociosos, que já se encheram novamente.
+     */
+    @Scheduled(fixedDelayString = "${api.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Um serviço que agrupa leituras concorrentes iguais em uma única chamada ao banco.
+ * 
+ * <p>A primeira chamada para uma chave executa a leitura; as que chegam enquanto ela
+ * está em andamento aguardam e recebem o mesmo resultado (ou a mesma exceção).
+ * As chamadas são contadas na métrica {@code singleflight.calls}, por grupo e resultado
+ * ({@code executed}, {@code coalesced} ou {@code timeout}).</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Service
+public class SingleFlight {
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Value("${api.single-flight.timeout-ms:5000}")
+    long timeoutMs;
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    private record Key(String group, Object id) {}
+
+    private record Counters(Counter executed, Counter coalesced, Counter timeout) {}
+
+    /**
+     * Executa a leitura, ou aguarda a leitura já em andamento para a mesma chave.
+     *
+     * @param group O grupo da leitura (por exemplo, "tarefa-por-id").
+     * @param id A chave da leitura dentro do grupo.
+     * @param loader A leitura a ser executada.
+     * @return O resultado da leitura.
+     * @throws ResponseStatusException Se a leitura em andamento não terminar dentro do tempo limite (503).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String group, Object id, Supplier<T> loader) {
+        var key = new Key(group, id);
+        var counter = counters.computeIfAbsent(group, this::newCounters);
+        var mine = new CompletableFuture<Object>();
+        var current = inFlight.putIfAbsent(key, mine);
+
+        if (current == null) {
+            counter.executed().increment();
+            try {
+                T value = loader.get();
+                mine.complete(value);
+                return value;
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+
+        counter.coalesced().increment();
+        try {
+            return (T) current.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            counter.timeout().increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Tempo de espera esgotado");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Counters newCounters(String group) {
+        return new Counters(
+            registry.counter("singleflight.calls", "group", group, "result", "executed"),
+            registry.counter("singleflight.calls", "group", group, "result", "coalesced"),
+            registry.counter("singleflight.calls", "group", group, "result", "timeout")
+        );
+    }
+}
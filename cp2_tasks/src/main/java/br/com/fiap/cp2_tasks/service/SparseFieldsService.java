@@ -0,0 +1,190 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Um serviço de consultas com campos esparsos ({@code ?fields=}).
+ * 
+ * <p>Os campos pedidos viram uma projeção em tupla, de modo que apenas as colunas
+ * correspondentes são lidas do banco e serializadas na resposta.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Service
+public class SparseFieldsService {
+
+    /** Quantidade máxima de combinações de campos mantidas no cache. */
+    private static final int MAX_CACHED_FIELD_SETS = 512;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    private final Map<String, List<String>> fieldSets = new ConcurrentHashMap<>();
+
+    /**
+     * Interpreta o parâmetro {@code fields}, validando os campos contra os permitidos.
+     * O resultado é guardado em cache, pois os clientes repetem sempre as mesmas combinações.
+     *
+     * @param entity A entidade consultada.
+     * @param allowed Os campos que podem ser pedidos.
+     * @param fields Os campos pedidos, separados por vírgula.
+     * @return Os campos, sem repetição, sempre começando pelo ID.
+     * @throws ResponseStatusException Se algum campo não for permitido (400).
+     */
+    public List<String> parse(Class<?> entity, Set<String> allowed, String fields) {
+        String key = entity.getSimpleName() + ':' + fields;
+        var cached = fieldSets.get(key);
+        if (cached != null) return cached;
+
+        var names = new LinkedHashSet<String>();
+        names.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+            if (!allowed.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo inválido: " + name);
+            }
+            names.add(name);
+        }
+
+        var parsed = Collections.unmodifiableList(new ArrayList<>(names));
+        if (fieldSets.size() < MAX_CACHED_FIELD_SETS) fieldSets.put(key, parsed);
+        return parsed;
+    }
+
+    /**
+     * Busca uma página da entidade lendo apenas os campos informados.
+     *
+     * @param entity A entidade consultada.
+     * @param fields Os campos a serem lidos.
+     * @param spec O filtro da consulta.
+     * @param pageable As opções de paginação e ordenação.
+     * @return Uma página de mapas campo-valor, na ordem dos campos.
+     */
+    public <T> Page<Map<String, Object>> findPage(Class<T> entity, List<String> fields, Specification<T> spec, Pageable pageable) {
+        var cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entity);
+        query.multiselect(select(root, fields));
+        query.where(spec.toPredicate(root, query, cb));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        var typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset());
+            typed.setMaxResults(pageable.getPageSize());
+            // Traz a página inteira em uma ida ao banco (o padrão do driver Oracle é 10 linhas)
+            typed.setHint(HibernateHints.HINT_FETCH_SIZE, pageable.getPageSize());
+        }
+        var content = toMaps(typed.getResultList(), fields);
+
+        long total;
+        if (pageable.isUnpaged() || (pageable.getOffset() == 0 && content.size() < pageable.getPageSize())) {
+            total = content.size();
+        } else {
+            CriteriaQuery<Long> count = cb.createQuery(Long.class);
+            Root<T> countRoot = count.from(entity);
+            count.select(cb.count(countRoot)).where(spec.toPredicate(countRoot, count, cb));
+            total = entityManager.createQuery(count).getSingleResult();
+        }
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Busca um registro da entidade lendo apenas os campos informados.
+     *
+     * @param entity A entidade consultada.
+     * @param fields Os campos a serem lidos.
+     * @param spec O filtro que identifica o registro.
+     * @return O mapa campo-valor do registro, se existir.
+     */
+    public <T> Optional<Map<String, Object>> findOne(Class<T> entity, List<String> fields, Specification<T> spec) {
+        var cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entity);
+        query.multiselect(select(root, fields));
+        query.where(spec.toPredicate(root, query, cb));
+
+        var rows = toMaps(entityManager.createQuery(query).setMaxResults(1).getResultList(), fields);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Monta um filtro "contém", escapando os curingas do termo como as consultas derivadas
+     * do Spring Data. Sem o caractere de escape explícito o Hibernate gera {@code escape ''},
+     * que o Oracle trata como nulo.
+     *
+     * @param cb O construtor de critérios.
+     * @param path O campo pesquisado.
+     * @param busca O termo de busca.
+     * @return O predicado LIKE correspondente.
+     */
+    public static Predicate containing(CriteriaBuilder cb, Expression<String> path, String busca) {
+        String escaped = busca.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return cb.like(path, "%" + escaped + "%", '\\');
+    }
+
+    /**
+     * Monta um filtro {@code id IN (...)} para limitar uma consulta de campos esparsos
+     * aos IDs pedidos em {@code ?ids=}.
+     *
+     * @param ids Os IDs desejados.
+     * @return O filtro correspondente.
+     */
+    public static <T> Specification<T> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    private List<Selection<?>> select(Root<?> root, List<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        return selections;
+    }
+
+    private List<Map<String, Object>> toMaps(List<Tuple> tuples, List<String> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            var row = new LinkedHashMap<String, Object>(fields.size() * 2);
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,257 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.fiap.cp2_tasks.models.TaskReport;
+import br.com.fiap.cp2_tasks.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Um serviço que gera o relatório gerencial das tarefas de um usuário.
+ * 
+ * <p>As tarefas do usuário são divididas em blocos de {@code chunk-size} linhas, delimitados por
+ * IDs lidos do índice (dono, ID), e os blocos são agregados em paralelo em um pool fork-join de
+ * tamanho limitado (cada bloco é uma consulta por faixa de IDs que lê apenas o status e o
+ * vencimento). Assim a quantidade de consultas depende só das tarefas do usuário, e não do
+ * tamanho da tabela. Os contadores de cada bloco usam tipos primitivos e os resultados parciais
+ * são combinados no relatório final. O paralelismo padrão fica abaixo do pool de conexões,
+ * para que o relatório não ocupe todas as conexões do banco.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Service
+public class TaskReportService {
+
+    /** Limites superiores (em dias) das faixas de atraso; a última faixa não tem limite. */
+    private static final int[] AGING_LIMITS = {7, 30, 90};
+
+    private static final String[] AGING_LABELS = {"1-7", "8-30", "31-90", "90+"};
+
+    @Autowired
+    TaskRepository taskRepository;
+
+    @Value("${api.report.parallelism:3}")
+    int parallelism;
+
+    @Value("${api.report.chunk-size:5000}")
+    long chunkSize;
+
+    @Value("${api.report.completed-statuses:CONCLUIDA,CONCLUIDO,FINALIZADA,DONE}")
+    Set<String> completedStatuses;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, Runtime.getRuntime().availableProcessors())));
+        completedStatuses = completedStatuses.stream()
+                .map(status -> status.trim().toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Gera o relatório das tarefas de um dono.
+     *
+     * @param ownerId O ID do dono das tarefas.
+     * @return O relatório com as contagens por status e semana, a taxa de conclusão e as faixas de atraso.
+     */
+    public TaskReport generate(Long ownerId) {
+        long today = LocalDate.now().toEpochDay();
+        long[] bounds = taskRepository.findChunkBoundariesByOwnerId(ownerId, chunkSize).stream()
+                .mapToLong(Number::longValue)
+                .toArray();
+
+        Partial partial = bounds.length == 0
+                ? new Partial()
+                : pool.invoke(new Chunks(ownerId, bounds, 0, bounds.length, today));
+        return partial.toReport();
+    }
+
+    /**
+     * Agrega os blocos {@code [first, last)}, dividindo-os ao meio enquanto houver mais de um.
+     * O bloco {@code i} vai de {@code bounds[i]} até o ID anterior a {@code bounds[i + 1]};
+     * o último não tem limite superior.
+     */
+    private class Chunks extends RecursiveTask<Partial> {
+
+        private final Long ownerId;
+
+        private final long[] bounds;
+
+        private final int first;
+
+        private final int last;
+
+        private final long today;
+
+        Chunks(Long ownerId, long[] bounds, int first, int last, long today) {
+            this.ownerId = ownerId;
+            this.bounds = bounds;
+            this.first = first;
+            this.last = last;
+            this.today = today;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (last - first == 1) {
+                long from = bounds[first];
+                long to = first + 1 < bounds.length ? bounds[first + 1] - 1 : Long.MAX_VALUE;
+                var partial = new Partial();
+                for (Object[] row : taskRepository.findStatusAndDueDateByOwnerIdAndIdBetween(ownerId, from, to)) {
+                    partial.add((String) row[0], (LocalDate) row[1], today);
+                }
+                return partial;
+            }
+
+            int middle = first + (last - first) / 2;
+            var left = new Chunks(ownerId, bounds, first, middle, today);
+            left.fork();
+            var right = new Chunks(ownerId, bounds, middle, last, today).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * O resultado parcial de um bloco: contadores primitivos por status e semana, totais e faixas de atraso.
+     */
+    private class Partial {
+
+        private final Map<String, LongCounter> weeksByStatus = new HashMap<>();
+
+        private final long[] aging = new long[AGING_LABELS.length];
+
+        private long total;
+
+        private long completed;
+
+        void add(String status, LocalDate dueDate, long today) {
+            total++;
+            String key = status == null ? "" : status.toUpperCase(Locale.ROOT);
+            boolean done = completedStatuses.contains(key);
+            if (done) completed++;
+
+            long due = dueDate.toEpochDay();
+            // 1970-01-01 foi uma quinta-feira: (dia + 3) mod 7 é a distância até a segunda-feira anterior
+            long week = due - Math.floorMod(due + 3, 7);
+            weeksByStatus.computeIfAbsent(key, ignored -> new LongCounter()).increment(week);
+
+            if (!done && due < today) {
+                long late = today - due;
+                int bucket = 0;
+                while (bucket < AGING_LIMITS.length && late > AGING_LIMITS[bucket]) bucket++;
+                aging[bucket]++;
+            }
+        }
+
+        Partial merge(Partial other) {
+            total += other.total;
+            completed += other.completed;
+            for (int i = 0; i < aging.length; i++) aging[i] += other.aging[i];
+            other.weeksByStatus.forEach((status, counter) ->
+                    weeksByStatus.computeIfAbsent(status, ignored -> new LongCounter()).merge(counter));
+            return this;
+        }
+
+        TaskReport toReport() {
+            var perStatusPerWeek = new TreeMap<String, Map<LocalDate, Long>>();
+            weeksByStatus.forEach((status, counter) -> {
+                var weeks = new TreeMap<LocalDate, Long>();
+                counter.forEach((week, count) -> weeks.put(LocalDate.ofEpochDay(week), count));
+                perStatusPerWeek.put(status, weeks);
+            });
+
+            var overdueAging = new LinkedHashMap<String, Long>();
+            for (int i = 0; i < AGING_LABELS.length; i++) overdueAging.put(AGING_LABELS[i], aging[i]);
+
+            double rate = total == 0 ? 0 : (double) completed / total;
+            return new TaskReport(total, completed, rate, perStatusPerWeek, overdueAging);
+        }
+    }
+
+    /**
+     * Um contador de chaves {@code long} com endereçamento aberto, sem objetos por entrada.
+     */
+    static final class LongCounter {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys = newKeys(16);
+
+        private long[] counts = new long[16];
+
+        private int size;
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        void increment(long key) {
+            add(key, 1);
+        }
+
+        void add(long key, long amount) {
+            int mask = keys.length - 1;
+            int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) slot = (slot + 1) & mask;
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                if (++size * 2 > keys.length) {
+                    counts[slot] += amount;
+                    grow();
+                    return;
+                }
+            }
+            counts[slot] += amount;
+        }
+
+        void merge(LongCounter other) {
+            other.forEach(this::add);
+        }
+
+        void forEach(LongBiConsumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) consumer.accept(keys[i], counts[i]);
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldCounts = counts;
+            keys = newKeys(oldKeys.length * 2);
+            counts = new long[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) add(oldKeys[i], oldCounts[i]);
+            }
+        }
+
+        @FunctionalInterface
+        interface LongBiConsumer {
+            void accept(long key, long value);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.fiap.cp2_tasks.models.Task;
+import br.com.fiap.cp2_tasks.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Um serviço que agrupa inserções concorrentes de tarefas em lotes gravados em uma única transação.
+ * 
+ * <p>Com {@code api.tasks.group-commit.enabled=true}, cada inserção entra em uma fila e uma
+ * thread de gravação junta até {@code max-batch} tarefas, ou o que chegar em {@code max-delay-ms},
+ * e as grava com um único commit. Quem chamou só recebe a tarefa, já com o ID gerado,
+ * depois que o commit do lote terminou. Quem desiste por tempo esgotado (503) retira a
+ * inserção da fila antes que ela entre em um lote, de modo que nada é gravado e o cliente pode
+ * repetir a requisição sem duplicar a tarefa. Se o lote falhar por causa de um registro
+ * (violação de restrição), as tarefas são regravadas uma a uma, apenas as de quem ainda
+ * espera; qualquer outra falha (tempo esgotado, conexão) recusa o lote inteiro com 503.
+ * Desligado, a gravação é feita diretamente.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class TaskWriteCoalescer {
+
+    @Autowired
+    TaskRepository taskRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Value("${api.tasks.group-commit.enabled:false}")
+    boolean enabled;
+
+    @Value("${api.tasks.group-commit.max-batch:64}")
+    int maxBatch;
+
+    @Value("${api.tasks.group-commit.max-delay-ms:5}")
+    long maxDelayMs;
+
+    @Value("${api.tasks.group-commit.queue-capacity:10000}")
+    int queueCapacity;
+
+    @Value("${api.tasks.group-commit.timeout-ms:10000}")
+    long timeoutMs;
+
+    private BlockingQueue<PendingInsert> queue;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    /** Na fila, esperando um lote. */
+    private static final int QUEUED = 0;
+
+    /** Em um lote que está sendo gravado. */
+    private static final int WRITING = 1;
+
+    /** Sendo regravada sozinha, depois da falha do lote. */
+    private static final int RETRYING = 2;
+
+    /** Quem chamou desistiu: a inserção não pode mais ser gravada. */
+    private static final int ABANDONED = 3;
+
+    /**
+     * Uma inserção na fila. {@code state} é disputado pela thread de gravação, ao montar o lote
+     * e ao regravar a tarefa sozinha, e por quem chamou, ao desistir por tempo esgotado: cada
+     * passagem é feita por compareAndSet, de modo que uma inserção abandonada nunca é gravada depois.
+     */
+    private record PendingInsert(Task task, CompletableFuture<Task> saved, AtomicInteger state) {}
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Limita a espera de quem chamou quando o lote já começou a ser gravado
+        transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs)));
+        running = true;
+        writer = new Thread(this::writeLoop, "task-group-commit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Grava uma nova tarefa, diretamente ou no próximo lote.
+     *
+     * @param task A tarefa já validada.
+     * @return A tarefa gravada, com o ID gerado.
+     * @throws ResponseStatusException Se a fila estiver cheia ou o lote não for gravado a tempo (503).
+     */
+    public Task save(Task task) {
+        if (!enabled) return taskRepository.save(task);
+
+        var pending = new PendingInsert(task, new CompletableFuture<>(), new AtomicInteger(QUEUED));
+        if (!running || !queue.offer(pending)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Fila de gravação cheia");
+        }
+
+        try {
+            return await(pending, timeoutMs);
+        } catch (TimeoutException e) {
+            if (pending.state().compareAndSet(QUEUED, ABANDONED)) {
+                // Ainda não entrou em um lote: sai da fila e nada é gravado
+                queue.remove(pending);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Tempo de gravação esgotado");
+            }
+        }
+
+        // O lote com esta tarefa já está sendo gravado: espera o commit, limitado pelo timeout da transação
+        long transactionMs = TimeUnit.SECONDS.toMillis(transactionTemplate.getTimeout());
+        try {
+            return await(pending, timeoutMs + transactionMs);
+        } catch (TimeoutException e) {
+            // Desiste antes que a tarefa seja regravada sozinha; se já estiver sendo, espera essa transação
+            if (!pending.state().compareAndSet(WRITING, ABANDONED)) {
+                try {
+                    return await(pending, transactionMs);
+                } catch (TimeoutException stillRunning) {
+                    throw new IllegalStateException("Gravação da tarefa sem resposta", stillRunning);
+                }
+            }
+            throw new IllegalStateException("Lote de gravação sem resposta", e);
+        }
+    }
+
+    /**
+     * Espera a gravação da inserção por até {@code waitMs} milissegundos.
+     */
+    private Task await(PendingInsert pending, long waitMs) throws TimeoutException {
+        try {
+            return pending.saved().get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void writeLoop() {
+        var batch = new ArrayList<PendingInsert>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    var next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                // Inserções canceladas por tempo esgotado não entram no lote
+                batch.removeIf(pending -> !pending.state().compareAndSet(QUEUED, WRITING));
+                if (!batch.isEmpty()) flush(batch);
+            } catch (InterruptedException e) {
+                // Interrompido no desligamento: o laço termina de esvaziar a fila
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Grava o lote em uma única transação. Se o lote falhar por causa de um registro inválido,
+     * cada tarefa cujo chamador ainda espera é regravada sozinha, para que o registro não derrube
+     * os demais; as outras falhas recusam o lote inteiro, sem nova tentativa.
+     */
+    private void flush(List<PendingInsert> batch) {
+        var tasks = new ArrayList<Task>(batch.size());
+        batch.forEach(pending -> tasks.add(pending.task()));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> taskRepository.saveAll(tasks));
+            batch.forEach(pending -> pending.saved().complete(pending.task()));
+        } catch (DataIntegrityViolationException batchError) {
+            log.warn("Falha ao gravar lote de {} tarefas, gravando individualmente", batch.size(), batchError);
+            for (var pending : batch) {
+                if (!pending.state().compareAndSet(WRITING, RETRYING)) continue;
+                try {
+                    pending.task().setId(null);
+                    pending.saved().complete(transactionTemplate.execute(status -> taskRepository.save(pending.task())));
+                } catch (RuntimeException e) {
+                    pending.saved().completeExceptionally(e);
+                }
+            }
+        } catch (RuntimeException batchError) {
+            // Tempo esgotado ou conexão perdida: repetir linha a linha só alongaria a espera
+            log.warn("Falha ao gravar lote de {} tarefas", batch.size(), batchError);
+            var unavailable = new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Falha na gravação", batchError);
+            batch.forEach(pending -> pending.saved().completeExceptionally(unavailable));
+        }
+    }
+
+    /**
+     * Para de aceitar inserções e espera a gravação do que já está na fila.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) return;
+        running = false;
+        writer.join(timeoutMs);
+    }
+}
@@ -2,14 +2,20 @@ package br.com.fiap.cp2_tasks.service;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 
+import br.com.fiap.cp2_tasks.config.RequestTiming;
+import br.com.fiap.cp2_tasks.config.RequestTiming.Phase;
 import br.com.fiap.cp2_tasks.models.Credencial;
 import br.com.fiap.cp2_tasks.models.Token;
 import br.com.fiap.cp2_tasks.models.User;
@@ -18,6 +24,13 @@ import br.com.fiap.cp2_tasks.repository.UserRepository;
 /**
  * Um serviço para geração e validação de tokens JWT.
  * 
+ * <p>O usuário de um token é lido no banco pelo compartimento "autenticacao", separado das
+ * leituras da API, e guardado por {@code api.auth.user-cache-ttl-seconds}. Assim, com o banco
+ * lento ou indisponível, quem já se autenticou continua passando pelo filtro e as leituras podem
+ * ser servidas com a última resposta conhecida. Gravações de usuários descartam a entrada
+ * nesta instância e, pelo registro de alterações, nas demais; enquanto o banco está indisponível
+ * não há exclusões a perder.</p>
+ * 
  * @author Kamilla
  * @version 1.0
  */
@@ -27,6 +40,24 @@ public class TokenService {
     @Autowired
     UserRepository usuarioRepository;
 
+    @Autowired
+    DatabaseBulkhead databaseBulkhead;
+
+    @Value("${api.auth.user-cache-ttl-seconds:300}")
+    long userCacheTtlSeconds;
+
+    @Value("${api.auth.user-cache-max-entries:10000}")
+    int userCacheMaxEntries;
+
+    private record Verified(User user, long verifiedAt) {}
+
+    private final LinkedHashMap<String, Verified> verified = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Verified> eldest) {
+            return size() > userCacheMaxEntries;
+        }
+    };
+
     /**
      * Gera um token JWT com base nas credenciais fornecidas.
      *
@@ -51,14 +82,56 @@ public class TokenService {
      * @throws JWTVerificationException Se o token não for válido ou o usuário não for encontrado.
      */
     public User validate(String token) {
+        long start = System.nanoTime();
         Algorithm alg = Algorithm.HMAC256("meusecret");
         var username = JWT.require(alg)
                 .withIssuer("Cp2_tasks")
                 .build()
                 .verify(token)
                 .getSubject();
+        RequestTiming.record(Phase.JWT, start);
+
+        start = System.nanoTime();
+        try {
+            var cached = recall(username);
+            if (cached != null) return cached;
+
+            // Requisições simultâneas do mesmo usuário compartilham a mesma consulta, sem resposta desatualizada
+            var user = databaseBulkhead.readFresh("autenticacao", "usuario-por-nome", username,
+                    () -> usuarioRepository.findByUsername(username))
+                    .orElseThrow(() -> new JWTVerificationException("Usuário não encontrado"));
+            remember(username, user);
+            return user;
+        } finally {
+            RequestTiming.record(Phase.USER, start);
+        }
+    }
+
+    /**
+     * Descarta os usuários guardados, depois de uma alteração ou exclusão.
+     *
+     * @param ids Os IDs dos usuários alterados.
+     */
+    public void forget(Collection<Long> ids) {
+        synchronized (verified) {
+            verified.values().removeIf(entry -> ids.contains(entry.user().getId()));
+        }
+    }
+
+    private User recall(String username) {
+        synchronized (verified) {
+            var entry = verified.get(username);
+            if (entry == null) return null;
+            if (System.currentTimeMillis() - entry.verifiedAt() <= userCacheTtlSeconds * 1_000) return entry.user();
+            verified.remove(username);
+            return null;
+        }
+    }
 
-        return usuarioRepository.findByUsername(username).orElseThrow(
-                () -> new JWTVerificationException("Usuário não encontrado"));
+    private void remember(String username, User user) {
+        var entry = new Verified(user, System.currentTimeMillis());
+        synchronized (verified) {
+            verified.put(username, entry);
+        }
     }
 }
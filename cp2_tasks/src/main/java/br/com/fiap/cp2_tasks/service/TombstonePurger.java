@@ -0,0 +1,115 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import br.com.fiap.cp2_tasks.repository.TaskRepository;
+import br.com.fiap.cp2_tasks.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remove definitivamente, em segundo plano, as tarefas e usuários excluídos logicamente.
+ * 
+ * <p>A remoção é feita em lotes limitados, apenas para exclusões mais antigas que o período
+ * de carência, e é adiada enquanto o pool de conexões estiver ocupado. A idade da exclusão
+ * lógica mais antiga ainda pendente é publicada na métrica {@code purge.lag.seconds} e as
+ * linhas removidas são contadas em {@code purge.rows}, ambas por entidade.</p>
+ * 
+ * @author Kamilla
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class TombstonePurger {
+
+    @Autowired
+    TaskRepository taskRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Value("${api.purge.enabled:true}")
+    boolean enabled;
+
+    @Value("${api.purge.batch-size:500}")
+    int batchSize;
+
+    @Value("${api.purge.max-batches:20}")
+    int maxBatches;
+
+    @Value("${api.purge.grace-seconds:300}")
+    long graceSeconds;
+
+    @Value("${api.purge.max-active-connections:2}")
+    int maxActiveConnections;
+
+    private final AtomicLong taskLag = new AtomicLong();
+
+    private final AtomicLong userLag = new AtomicLong();
+
+    private Counter taskRows;
+
+    private Counter userRows;
+
+    @PostConstruct
+    void init() {
+        registry.gauge("purge.lag.seconds", List.of(Tag.of("entity", "task")), taskLag);
+        registry.gauge("purge.lag.seconds", List.of(Tag.of("entity", "user")), userLag);
+        taskRows = registry.counter("purge.rows", "entity", "task");
+        userRows = registry.counter("purge.rows", "entity", "user");
+    }
+
+    /**
+     * Remove um ciclo de lotes de tarefas e depois de usuários (cujas tarefas são removidas em cascata).
+     */
+    @Scheduled(fixedDelayString = "${api.purge.interval-ms:60000}", initialDelayString = "${api.purge.interval-ms:60000}")
+    public void purge() {
+        if (!enabled) return;
+        try {
+            purge(taskRepository::purgeTombstones, taskRepository::findOldestTombstone, taskRows, taskLag);
+            purge(userRepository::purgeTombstones, userRepository::findOldestTombstone, userRows, userLag);
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível remover as exclusões lógicas: {}", e.toString());
+        }
+    }
+
+    private void purge(BiFunction<Instant, Integer, Integer> delete, Supplier<Optional<Instant>> oldest, Counter rows, AtomicLong lag) {
+        var before = Instant.now().minusSeconds(graceSeconds);
+        for (int batch = 0; batch < maxBatches && !busy(); batch++) {
+            int removed = delete.apply(before, batchSize);
+            rows.increment(removed);
+            if (removed < batchSize) break;
+        }
+        lag.set(oldest.get().map(at -> Duration.between(at, Instant.now()).toSeconds()).orElse(0L));
+    }
+
+    private boolean busy() {
+        return dataSource instanceof HikariDataSource hikari
+            && hikari.getHikariPoolMXBean() != null
+            && hikari.getHikariPoolMXBean().getActiveConnections() > maxActiveConnections;
+    }
+}
@@ -0,0 +1,19 @@
+-- Schema inicial de tarefas e usuarios, como criado pelo Hibernate antes das migracoes.
+-- Bancos ja existentes partem desta versao (flyway.baselineOnMigrate).
+
+create table t_ct_task (
+    dt_due date not null,
+    id_task number(19,0) generated by default as identity,
+    title_task varchar2(50 char),
+    ds_task varchar2(255 char),
+    st_task varchar2(255 char) not null,
+    primary key (id_task)
+);
+
+create table t_ct_usuario (
+    id_user number(19,0) generated by default as identity,
+    nm_user varchar2(50 char),
+    ds_password varchar2(255 char),
+    roles varchar2(255 char),
+    primary key (id_user)
+);
@@ -0,0 +1,27 @@
+-- Dono de cada tarefa e exclusao logica de tarefas e usuarios.
+-- Tarefas anteriores ficam sem dono ate serem atribuidas a um usuario.
+
+alter table t_ct_task add (
+    owner_id number(19,0),
+    fl_deleted number(10,0) default 0 not null check (fl_deleted in (0,1)),
+    dt_deleted timestamp(6) with time zone
+);
+
+alter table t_ct_task
+    add constraint FK_CT_TASK_OWNER
+    foreign key (owner_id)
+    references t_ct_usuario
+    on delete cascade;
+
+alter table t_ct_usuario add (
+    fl_deleted number(10,0) default 0 not null check (fl_deleted in (0,1)),
+    dt_deleted timestamp(6) with time zone
+);
+
+create index IX_CT_TASK_OWNER_DUE on t_ct_task (owner_id, fl_deleted, dt_due, id_task);
+
+create index IX_CT_TASK_OWNER_ID on t_ct_task (owner_id, fl_deleted, id_task);
+
+create index IX_CT_TASK_DELETED on t_ct_task (fl_deleted, dt_deleted);
+
+create index IX_CT_USUARIO_DELETED on t_ct_usuario (fl_deleted, dt_deleted);
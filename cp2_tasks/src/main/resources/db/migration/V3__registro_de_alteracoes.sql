@@ -0,0 +1,13 @@
+-- Registro de alteracoes lido pelas demais instancias para invalidar os caches.
+
+create table t_ct_change_log (
+    dt_change timestamp(6) with time zone not null,
+    id_change number(19,0) generated by default as identity,
+    id_entity number(19,0) not null,
+    nr_version number(19,0) not null,
+    nm_entity varchar2(20 char) not null,
+    id_origin varchar2(36 char) not null,
+    primary key (id_change)
+);
+
+create index IX_CT_CHANGE_LOG_DT on t_ct_change_log (dt_change);
@@ -0,0 +1,15 @@
+-- Historico de auditoria por entidade.
+
+create table t_ct_audit_event (
+    dt_event timestamp(6) with time zone not null,
+    id_actor number(19,0),
+    id_entity number(19,0) not null,
+    id_event number(19,0) generated by default as identity,
+    ds_action varchar2(10 char) not null,
+    nm_entity varchar2(20 char) not null,
+    nm_actor varchar2(50 char),
+    id_request varchar2(64 char),
+    primary key (id_event)
+);
+
+create index IX_CT_AUDIT_ENTITY_DT on t_ct_audit_event (nm_entity, id_entity, dt_event);
@@ -2,8 +2,10 @@ package br.com.fiap.cp2_tasks;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
+@ActiveProfiles("test")
 class Cp2TasksApplicationTests {
 
 	@Test
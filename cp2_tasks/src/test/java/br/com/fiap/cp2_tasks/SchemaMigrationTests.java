@@ -0,0 +1,62 @@
+package br.com.fiap.cp2_tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Types;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.dialect.OracleDialect;
+import org.hibernate.tool.schema.extract.internal.SequenceInformationExtractorNoOpImpl;
+import org.hibernate.tool.schema.extract.spi.SequenceInformationExtractor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * As migrações de db/migration, aplicadas do zero, criam o schema esperado pelas entidades.
+ */
+class SchemaMigrationTests {
+
+	/**
+	 * O dialeto de produção, ajustado a duas diferenças do H2 no modo Oracle: não há ALL_SEQUENCES
+	 * (as entidades usam identity) e colunas DATE são informadas como TIMESTAMP.
+	 */
+	public static class OracleOnH2Dialect extends OracleDialect {
+
+		@Override
+		public boolean equivalentTypes(int typeCode1, int typeCode2) {
+			return super.equivalentTypes(typeCode1, typeCode2) || isDate(typeCode1) && isDate(typeCode2);
+		}
+
+		private static boolean isDate(int typeCode) {
+			return typeCode == Types.DATE || typeCode == Types.TIMESTAMP;
+		}
+
+		@Override
+		public String getQuerySequencesString() {
+			return null;
+		}
+
+		@Override
+		public SequenceInformationExtractor getSequenceInformationExtractor() {
+			return SequenceInformationExtractorNoOpImpl.INSTANCE;
+		}
+	}
+
+	@Test
+	void migrationsMatchTheEntities() {
+		String url = "jdbc:h2:mem:migrations;MODE=Oracle;DB_CLOSE_DELAY=-1";
+		var result = Flyway.configure().dataSource(url, "sa", "").load().migrate();
+		assertEquals(4, result.migrationsExecuted);
+
+		// validate falha na subida se faltar tabela ou coluna, ou se algum tipo não corresponder;
+		// como argumentos, as propriedades têm precedência sobre o application-test.properties
+		try (var context = new SpringApplicationBuilder(Cp2TasksApplication.class)
+				.profiles("test")
+				.run("--server.port=0",
+					"--spring.datasource.url=" + url,
+					"--spring.jpa.properties.hibernate.dialect=" + OracleOnH2Dialect.class.getName(),
+					"--spring.jpa.hibernate.ddl-auto=validate")) {
+			// Subiu: o schema corresponde às entidades
+		}
+	}
+}
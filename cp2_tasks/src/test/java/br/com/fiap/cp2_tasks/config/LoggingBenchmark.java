@@ -0,0 +1,121 @@
+package br.com.fiap.cp2_tasks.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import br.com.fiap.cp2_tasks.models.Task;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * Custo, na thread da requisição, de registrar o cadastro de uma tarefa.
+ *
+ * <p>{@code concatenated} reproduz o log antigo ({@code "Cadastrando Tarefa" + task}) e
+ * {@code parameterized} o evento atual ({@code evento=tarefa.cadastrar id={}}). Com
+ * {@code appender=sync} a escrita acontece na própria chamada; com {@code async} ela passa
+ * pela mesma fila do logback-spring.xml (8192 eventos, sem bloqueio), que descarta eventos
+ * INFO quando enche. O destino é um arquivo temporário no lugar do console, com o mesmo
+ * padrão de linha.</p>
+ *
+ * <p>Execução: {@code mvn -Pbenchmark verify -Dbenchmark.include=Logging}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggingBenchmark {
+
+	private static final String PATTERN =
+		"%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%X{requestId:-}] %pid --- [%15.15t] %-40.40logger{39} : %m%n";
+
+	@Param({"sync", "async"})
+	String appender;
+
+	private final Logger log = LoggerFactory.getLogger(LoggingBenchmark.class);
+
+	private LoggerContext context;
+
+	private File file;
+
+	private Task task;
+
+	@Setup
+	public void start() throws IOException {
+		file = File.createTempFile("logging-benchmark", ".log");
+		context = (LoggerContext) LoggerFactory.getILoggerFactory();
+		context.reset();
+
+		var encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern(PATTERN.replace("%pid", String.valueOf(ProcessHandle.current().pid())));
+		encoder.start();
+
+		var fileAppender = new FileAppender<ILoggingEvent>();
+		fileAppender.setContext(context);
+		fileAppender.setName("FILE");
+		fileAppender.setFile(file.getAbsolutePath());
+		fileAppender.setEncoder(encoder);
+		fileAppender.start();
+
+		var root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+		root.setLevel(Level.INFO);
+		if (appender.equals("async")) {
+			var async = new AsyncAppender();
+			async.setContext(context);
+			async.setName("ASYNC");
+			async.setQueueSize(8192);
+			async.setDiscardingThreshold(819);
+			async.setNeverBlock(true);
+			async.setIncludeCallerData(false);
+			async.addAppender(fileAppender);
+			async.start();
+			root.addAppender(async);
+		} else {
+			root.addAppender(fileAppender);
+		}
+
+		MDC.put("requestId", "3f2b9c1e-5d4a-4e7b-9a61-0c8d2e7f4b10");
+		task = Task.builder()
+			.id(4821L)
+			.title("Revisar relatório")
+			.description("Conferir os números do relatório mensal antes da reunião")
+			.status("PENDENTE")
+			.dueDate(LocalDate.now().plusDays(7))
+			.build();
+	}
+
+	@TearDown
+	public void stop() {
+		MDC.clear();
+		context.stop();
+		file.delete();
+	}
+
+	@Benchmark
+	public void concatenated() {
+		log.info("Cadastrando Tarefa" + task);
+	}
+
+	@Benchmark
+	public void parameterized() {
+		log.info("evento=tarefa.cadastrar id={}", task.getId());
+	}
+}
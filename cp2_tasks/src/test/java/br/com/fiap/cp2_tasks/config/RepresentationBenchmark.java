@@ -0,0 +1,129 @@
+package br.com.fiap.cp2_tasks.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import br.com.fiap.cp2_tasks.Cp2TasksApplication;
+import br.com.fiap.cp2_tasks.models.Task;
+
+/**
+ * Custo de serialização de uma página de tarefas em cada representação negociada:
+ * HAL (padrão), JSON enxuto e CBOR, usando os conversores registrados pela aplicação.
+ *
+ * <p>O tamanho de cada corpo, sem compressão e com gzip, é impresso na preparação de cada
+ * combinação de parâmetros.</p>
+ *
+ * <p>Execução: {@code mvn -Pbenchmark verify -Dbenchmark.include=Representation}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepresentationBenchmark {
+
+	@Param({"hal", "lean", "cbor"})
+	String format;
+
+	@Param({"20", "100"})
+	int size;
+
+	private ConfigurableApplicationContext context;
+
+	private PagedModel<?> model;
+
+	private MediaType mediaType;
+
+	private HttpMessageConverter<Object> converter;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void start() throws IOException {
+		context = new SpringApplicationBuilder(Cp2TasksApplication.class)
+			.profiles("test")
+			.properties(
+				"server.port=0",
+				"spring.datasource.url=jdbc:h2:mem:representation-" + System.nanoTime() + ";MODE=Oracle;DB_CLOSE_DELAY=-1",
+				"logging.level.root=WARN")
+			.run();
+
+		var request = new MockHttpServletRequest("GET", "/api/tasks");
+		request.setServerName("localhost");
+		request.setServerPort(8080);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+		var tasks = new ArrayList<Task>(size);
+		LocalDate due = LocalDate.now();
+		for (int i = 1; i <= size; i++) {
+			tasks.add(Task.builder()
+				.id((long) i)
+				.title("Tarefa " + i)
+				.description("Descrição da tarefa número " + i + " do backlog")
+				.status(i % 3 == 0 ? "CONCLUIDA" : "PENDENTE")
+				.dueDate(due.plusDays(i))
+				.build());
+		}
+		var page = new PageImpl<>(tasks, PageRequest.of(0, size), 10_000);
+		PagedResourcesAssembler<EntityModel<Task>> assembler = context.getBean(PagedResourcesAssembler.class);
+		model = assembler.toModel(page.map(Task::toEntityModel));
+
+		mediaType = switch (format) {
+			case "hal" -> MediaTypes.HAL_JSON;
+			case "lean" -> LeanJsonHttpMessageConverter.LEAN_JSON;
+			default -> MediaType.parseMediaType("application/cbor");
+		};
+		converter = (HttpMessageConverter<Object>) context.getBean(RequestMappingHandlerAdapter.class)
+			.getMessageConverters().stream()
+			.filter(c -> c.canWrite(model.getClass(), mediaType))
+			.findFirst()
+			.orElseThrow();
+
+		byte[] body = serialize();
+		var gzipped = new ByteArrayOutputStream();
+		try (var gzip = new GZIPOutputStream(gzipped)) {
+			gzip.write(body);
+		}
+		System.out.printf("%n%s, %d tarefas: %d bytes, %d bytes com gzip (%s)%n",
+			format, size, body.length, gzipped.size(), converter.getClass().getSimpleName());
+	}
+
+	@TearDown
+	public void stop() {
+		RequestContextHolder.resetRequestAttributes();
+		context.close();
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		var message = new MockHttpOutputMessage();
+		converter.write(model, mediaType, message);
+		return message.getBodyAsBytes();
+	}
+}
@@ -0,0 +1,90 @@
+package br.com.fiap.cp2_tasks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import br.com.fiap.cp2_tasks.Cp2TasksApplication;
+import br.com.fiap.cp2_tasks.models.Task;
+import br.com.fiap.cp2_tasks.repository.ChangeLogRepository;
+
+/**
+ * Duas instâncias da aplicação compartilhando o mesmo banco H2 em memória.
+ */
+class ChangeLogServiceTests {
+
+	private static final String[] PROPERTIES = {
+		"server.port=0",
+		"spring.datasource.url=jdbc:h2:mem:changelog;MODE=Oracle;DB_CLOSE_DELAY=-1",
+		// As leituras do registro são feitas pelo próprio teste
+		"api.change-log.poll-interval-ms=3600000"
+	};
+
+	private ConfigurableApplicationContext first;
+
+	private ConfigurableApplicationContext second;
+
+	@BeforeEach
+	void start() {
+		first = new SpringApplicationBuilder(Cp2TasksApplication.class).profiles("test").properties(PROPERTIES).run();
+		second = new SpringApplicationBuilder(Cp2TasksApplication.class).profiles("test").properties(PROPERTIES).run();
+	}
+
+	@AfterEach
+	void stop() {
+		second.close();
+		first.close();
+	}
+
+	@Test
+	void writeOnOneInstanceEvictsPagesCachedByTheOther() {
+		var cache = second.getBean(QueryPageCache.class);
+		second.getBean(ChangeLogService.class).poll();
+
+		var queries = new AtomicInteger();
+		var page = PageRequest.of(0, 5);
+		List<Task> tasks = List.of(Task.builder().id(1L).build());
+		Runnable list = () -> cache.findPage(ChangeLogService.TASK, 1L, null, page,
+			() -> {
+				queries.incrementAndGet();
+				return new PageImpl<>(tasks, page, 1);
+			},
+			ids -> tasks, Task::getId);
+
+		list.run();
+		list.run();
+		assertEquals(1, queries.get());
+
+		first.getBean(ChangeLogService.class).publish(ChangeLogService.TASK, 1L);
+		list.run();
+		assertEquals(1, queries.get());
+
+		second.getBean(ChangeLogService.class).poll();
+		list.run();
+		assertEquals(2, queries.get());
+	}
+
+	@Test
+	void compactionRemovesRowsOlderThanRetention() {
+		var service = first.getBean(ChangeLogService.class);
+		var repository = first.getBean(ChangeLogRepository.class);
+		service.publish(ChangeLogService.USER, 1L);
+		assertTrue(repository.count() > 0);
+
+		// Retenção negativa: o limite fica no futuro e todas as linhas são antigas
+		service.retentionMinutes = -1;
+		service.compact();
+
+		assertEquals(0, repository.count());
+	}
+}
@@ -0,0 +1,86 @@
+package br.com.fiap.cp2_tasks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.fiap.cp2_tasks.service.IdempotencyStore.Entry;
+import br.com.fiap.cp2_tasks.service.IdempotencyStore.StoredResponse;
+
+/**
+ * Limite e expiração do armazenamento de Idempotency-Key.
+ */
+class IdempotencyStoreTests {
+
+	private IdempotencyStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new IdempotencyStore();
+		store.ttlSeconds = 3_600;
+		store.maxEntries = 3;
+	}
+
+	@Test
+	void fullStoreStillClaimsNewKeys() {
+		for (int i = 0; i < 10; i++) {
+			var mine = entry();
+			assertSame(mine, store.claim("k" + i, mine));
+		}
+	}
+
+	@Test
+	void trimDropsTheOldestCompletedKeys() {
+		claimCompleted("a");
+		claimCompleted("b");
+		claimCompleted("c");
+		claimCompleted("d");
+
+		store.trim();
+
+		// "a" foi descartada: a chave pode ser registrada de novo
+		var again = entry();
+		assertSame(again, store.claim("a", again));
+		assertEquals(201, store.claim("d", entry()).response().join().status());
+	}
+
+	@Test
+	void trimKeepsKeysStillInProgress() {
+		var running = entry();
+		store.claim("a", running);
+		claimCompleted("b");
+		claimCompleted("c");
+		claimCompleted("d");
+
+		store.trim();
+
+		assertSame(running, store.claim("a", entry()));
+	}
+
+	@Test
+	void expiredKeysAreRemovedFromTheHead() {
+		claimCompleted("a");
+		store.ttlSeconds = 0;
+		store.evictExpired();
+		store.ttlSeconds = 3_600;
+
+		var again = entry();
+		assertSame(again, store.claim("a", again));
+	}
+
+	private Entry claimCompleted(String key) {
+		var mine = entry();
+		store.claim(key, mine);
+		store.complete(mine, new StoredResponse(201, Map.of(), new byte[0]));
+		return mine;
+	}
+
+	private static Entry entry() {
+		return new Entry(new CompletableFuture<>(), "f", System.nanoTime());
+	}
+}
@@ -0,0 +1,116 @@
+package br.com.fiap.cp2_tasks.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * O índice de IDs existentes usado pelo {@link NegativeLookup}, sem banco.
+ */
+class NegativeLookupTests {
+
+	private static final long GUARD_BAND = 10;
+
+	private static final long MAX_ID = 1_000;
+
+	private final NegativeLookup.IdIndex index = new NegativeLookup.IdIndex();
+
+	@Test
+	void nothingIsMissingBeforeTheFirstRebuild() {
+		assertTrue(index.mightContain(1));
+		assertTrue(index.mightContain(500));
+	}
+
+	@Test
+	void idsBelowTheGuardBandComeFromTheBitmap() {
+		index.rebuild(100, () -> Stream.of(1L, 2L, 64L, 65L, 100L), GUARD_BAND, MAX_ID);
+
+		assertTrue(index.mightContain(1));
+		assertTrue(index.mightContain(64));
+		assertTrue(index.mightContain(65));
+		assertFalse(index.mightContain(3));
+		assertFalse(index.mightContain(63));
+		assertFalse(index.mightContain(90));
+	}
+
+	@Test
+	void idsInsideTheGuardBandOrAboveTheMaxAreNeverMissing() {
+		index.rebuild(100, () -> Stream.of(1L, 100L), GUARD_BAND, MAX_ID);
+
+		// highWater = 90: inserções de outras instâncias podem ainda não ter sido lidas
+		assertTrue(index.mightContain(91));
+		assertTrue(index.mightContain(99));
+		assertTrue(index.mightContain(101));
+		assertTrue(index.mightContain(10_000));
+	}
+
+	@Test
+	void zeroAndNegativeIdsAreNeverMissing() {
+		index.rebuild(100, () -> Stream.of(1L), GUARD_BAND, MAX_ID);
+
+		assertTrue(index.mightContain(0));
+		assertTrue(index.mightContain(-5));
+	}
+
+	@Test
+	void idsAddedAfterTheRebuildAreFound() {
+		index.rebuild(100, () -> Stream.of(1L), GUARD_BAND, MAX_ID);
+
+		index.add(50);
+
+		assertTrue(index.mightContain(50));
+		assertFalse(index.mightContain(51));
+	}
+
+	@Test
+	void rebuildDropsRecentIdsCoveredByTheBitmap() {
+		index.rebuild(100, () -> Stream.of(1L), GUARD_BAND, MAX_ID);
+		index.add(50);
+		index.add(150);
+
+		// 50 foi excluído antes da reconstrução; 150 continua gravado e passa a vir do mapa de bits
+		index.rebuild(200, () -> Stream.of(1L, 150L), GUARD_BAND, MAX_ID);
+
+		assertFalse(index.mightContain(50));
+		assertTrue(index.mightContain(150));
+	}
+
+	@Test
+	void recentIdsInsideTheGuardBandWaitForTheNextRebuild() {
+		index.rebuild(100, () -> Stream.of(1L), GUARD_BAND, MAX_ID);
+		index.add(195);
+
+		// Lido antes do commit: 195 fica na margem desta reconstrução e só sai na seguinte
+		index.rebuild(200, () -> Stream.of(1L), GUARD_BAND, MAX_ID);
+		assertTrue(index.mightContain(195));
+
+		index.rebuild(300, () -> Stream.of(1L), GUARD_BAND, MAX_ID);
+		assertFalse(index.mightContain(195));
+	}
+
+	@Test
+	void idsStreamedAboveTheMaxAreIgnored() {
+		index.rebuild(100, () -> Stream.of(1L, 5_000L), GUARD_BAND, MAX_ID);
+
+		assertFalse(index.mightContain(2));
+	}
+
+	@Test
+	void tableAboveTheMaxIdDisablesTheIndexWithoutReadingIds() {
+		index.rebuild(100, () -> Stream.of(1L), GUARD_BAND, MAX_ID);
+		assertFalse(index.mightContain(2));
+
+		var read = new AtomicBoolean();
+		index.rebuild(MAX_ID + 1, () -> {
+			read.set(true);
+			return Stream.of(1L);
+		}, GUARD_BAND, MAX_ID);
+
+		assertFalse(read.get());
+		assertTrue(index.mightContain(2));
+	}
+}
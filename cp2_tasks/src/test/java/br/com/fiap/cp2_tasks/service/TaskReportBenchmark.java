@@ -0,0 +1,98 @@
+package br.com.fiap.cp2_tasks.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.fiap.cp2_tasks.Cp2TasksApplication;
+import br.com.fiap.cp2_tasks.models.TaskReport;
+
+/**
+ * Escalabilidade do relatório de tarefas por paralelismo e tamanho da tabela (H2 em memória).
+ *
+ * <p>{@code spread} é a quantidade de linhas da tabela para cada tarefa do dono do relatório:
+ * com 10, o dono tem um décimo das linhas, intercaladas com as de outro usuário. O tempo deve
+ * acompanhar {@code tasks}, e não o tamanho da tabela. O paralelismo efetivo é limitado à
+ * quantidade de processadores da máquina.</p>
+ *
+ * <p>Execução: {@code mvn -Pbenchmark verify -Dbenchmark.include=TaskReport}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskReportBenchmark {
+
+	private static final int INSERT_BATCH = 1000;
+
+	@Param({"1", "2", "4"})
+	int parallelism;
+
+	@Param({"10000", "50000"})
+	int tasks;
+
+	@Param({"1", "10"})
+	int spread;
+
+	private ConfigurableApplicationContext context;
+
+	private TaskReportService reportService;
+
+	private long ownerId;
+
+	@Setup
+	public void start() {
+		context = new SpringApplicationBuilder(Cp2TasksApplication.class)
+			.profiles("test")
+			.properties(
+				"server.port=0",
+				"spring.datasource.url=jdbc:h2:mem:report-" + System.nanoTime() + ";MODE=Oracle;DB_CLOSE_DELAY=-1",
+				"logging.level.root=WARN",
+				"api.report.parallelism=" + parallelism,
+				"api.report.chunk-size=2500")
+			.run();
+		reportService = context.getBean(TaskReportService.class);
+
+		var jdbc = context.getBean(JdbcTemplate.class);
+		jdbc.update("insert into t_ct_usuario (nm_user, ds_password, roles, fl_deleted) values ('dono', 'x', 'USER', 0)");
+		jdbc.update("insert into t_ct_usuario (nm_user, ds_password, roles, fl_deleted) values ('outro', 'x', 'USER', 0)");
+		ownerId = jdbc.queryForObject("select id_user from t_ct_usuario where nm_user = 'dono'", Long.class);
+		long otherId = jdbc.queryForObject("select id_user from t_ct_usuario where nm_user = 'outro'", Long.class);
+
+		String[] statuses = {"PENDENTE", "EM_ANDAMENTO", "CONCLUIDA"};
+		LocalDate start = LocalDate.now().minusDays(180);
+		var batch = new ArrayList<Object[]>(INSERT_BATCH);
+		long rows = (long) tasks * spread;
+		for (long i = 0; i < rows; i++) {
+			long owner = i % spread == 0 ? ownerId : otherId;
+			batch.add(new Object[] {"tarefa", "d", statuses[(int) (i % statuses.length)], Date.valueOf(start.plusDays(i % 365)), owner});
+			if (batch.size() == INSERT_BATCH || i == rows - 1) {
+				jdbc.batchUpdate("insert into t_ct_task (title_task, ds_task, st_task, dt_due, owner_id, fl_deleted) values (?, ?, ?, ?, ?, 0)", batch);
+				batch.clear();
+			}
+		}
+	}
+
+	@TearDown
+	public void stop() {
+		context.close();
+	}
+
+	@Benchmark
+	public TaskReport report() {
+		return reportService.generate(ownerId);
+	}
+}
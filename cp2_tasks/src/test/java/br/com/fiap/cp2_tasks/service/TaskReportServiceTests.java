@@ -0,0 +1,94 @@
+package br.com.fiap.cp2_tasks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * O contador de chaves {@code long} usado pelo relatório de tarefas, comparado a um {@link HashMap}.
+ */
+class TaskReportServiceTests {
+
+	@Test
+	void emptyCounterHasNoEntries() {
+		assertTrue(toMap(new TaskReportService.LongCounter()).isEmpty());
+	}
+
+	@Test
+	void incrementCountsEachKey() {
+		var counter = new TaskReportService.LongCounter();
+		counter.increment(2900);
+		counter.increment(2900);
+		counter.increment(2901);
+		counter.add(2902, 5);
+
+		assertEquals(Map.of(2900L, 2L, 2901L, 1L, 2902L, 5L), toMap(counter));
+	}
+
+	@Test
+	void zeroAndNegativeKeysAreCounted() {
+		var counter = new TaskReportService.LongCounter();
+		counter.increment(0);
+		counter.increment(-1);
+		counter.increment(-1);
+		counter.increment(Long.MAX_VALUE);
+
+		assertEquals(Map.of(0L, 1L, -1L, 2L, Long.MAX_VALUE, 1L), toMap(counter));
+	}
+
+	@Test
+	void growingKeepsEveryCount() {
+		var counter = new TaskReportService.LongCounter();
+		var expected = new HashMap<Long, Long>();
+		var random = new Random(42);
+		// Bem além da capacidade inicial de 16, com chaves repetidas e espalhadas
+		for (int i = 0; i < 20_000; i++) {
+			long key = i % 3 == 0 ? random.nextInt(200) - 100 : random.nextLong() >> 20;
+			counter.increment(key);
+			expected.merge(key, 1L, Long::sum);
+		}
+
+		assertEquals(expected, toMap(counter));
+	}
+
+	@Test
+	void sequentialKeysSurviveGrowth() {
+		var counter = new TaskReportService.LongCounter();
+		var expected = new HashMap<Long, Long>();
+		for (long week = 2_800; week < 3_800; week++) {
+			counter.add(week, week);
+			expected.put(week, week);
+		}
+
+		assertEquals(expected, toMap(counter));
+	}
+
+	@Test
+	void mergeAddsTheOtherCounts() {
+		var first = new TaskReportService.LongCounter();
+		first.increment(1);
+		first.add(2, 3);
+		var second = new TaskReportService.LongCounter();
+		second.add(2, 4);
+		for (long key = 100; key < 140; key++) second.increment(key);
+
+		first.merge(second);
+
+		var expected = new HashMap<Long, Long>(Map.of(1L, 1L, 2L, 7L));
+		for (long key = 100; key < 140; key++) expected.put(key, 1L);
+		assertEquals(expected, toMap(first));
+		assertEquals(41, toMap(second).size());
+	}
+
+	private static Map<Long, Long> toMap(TaskReportService.LongCounter counter) {
+		var map = new HashMap<Long, Long>();
+		counter.forEach((key, value) -> assertNull(map.put(key, value), "chave repetida: " + key));
+		return map;
+	}
+}
@@ -0,0 +1,219 @@
+package br.com.fiap.cp2_tasks.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import br.com.fiap.cp2_tasks.models.Task;
+import br.com.fiap.cp2_tasks.repository.TaskRepository;
+
+/**
+ * Agrupamento de inserções de tarefas com repositório e gerenciador de transações simulados.
+ */
+class TaskWriteCoalescerTests {
+
+	private final AtomicLong ids = new AtomicLong();
+
+	private final List<List<Task>> batches = new ArrayList<>();
+
+	private TaskRepository taskRepository;
+
+	private PlatformTransactionManager transactionManager;
+
+	private TaskWriteCoalescer coalescer;
+
+	private ExecutorService callers;
+
+	@BeforeEach
+	void setUp() {
+		taskRepository = mock(TaskRepository.class);
+		transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+		coalescer = new TaskWriteCoalescer();
+		coalescer.taskRepository = taskRepository;
+		coalescer.transactionManager = transactionManager;
+		coalescer.enabled = true;
+		coalescer.maxBatch = 3;
+		coalescer.maxDelayMs = 2_000;
+		coalescer.queueCapacity = 100;
+		coalescer.timeoutMs = 5_000;
+
+		callers = Executors.newFixedThreadPool(3);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		coalescer.stop();
+		callers.shutdownNow();
+	}
+
+	@Test
+	void concurrentInsertsAreWrittenInOneTransaction() {
+		when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<Task> tasks = invocation.getArgument(0);
+			synchronized (batches) {
+				batches.add(List.copyOf(tasks));
+			}
+			tasks.forEach(task -> task.setId(ids.incrementAndGet()));
+			return tasks;
+		});
+		coalescer.start();
+
+		var saves = List.of(submit(task("a")), submit(task("b")), submit(task("c")));
+
+		for (var save : saves) assertNotNull(save.join().getId());
+		assertEquals(1, batches.size());
+		assertEquals(3, batches.get(0).size());
+		verify(transactionManager, times(1)).commit(any());
+		verify(taskRepository, never()).save(any());
+	}
+
+	@Test
+	void batchWithAnInvalidRowFallsBackToOneInsertPerTask() {
+		when(taskRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("lote inválido"));
+		var invalid = new IllegalArgumentException("tarefa inválida");
+		when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+			Task task = invocation.getArgument(0);
+			if (task.getTitle().equals("inválida")) throw invalid;
+			task.setId(ids.incrementAndGet());
+			return task;
+		});
+		coalescer.start();
+
+		var first = submit(task("a"));
+		var broken = submit(task("inválida"));
+		var last = submit(task("c"));
+
+		assertNotNull(first.join().getId());
+		assertNotNull(last.join().getId());
+		var error = assertThrows(CompletionException.class, broken::join);
+		assertSame(invalid, error.getCause());
+		// O lote e a tarefa inválida, cada um na sua transação
+		verify(transactionManager, times(2)).rollback(any());
+		verify(taskRepository, times(3)).save(any(Task.class));
+	}
+
+	@Test
+	void batchTimeoutFailsEveryInsertWithoutRetrying() {
+		when(taskRepository.saveAll(anyList())).thenThrow(new QueryTimeoutException("tempo esgotado"));
+		coalescer.start();
+
+		var saves = List.of(submit(task("a")), submit(task("b")), submit(task("c")));
+
+		for (var save : saves) {
+			var error = assertThrows(CompletionException.class, save::join);
+			var status = assertInstanceOf(ResponseStatusException.class, error.getCause());
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE, status.getStatusCode());
+		}
+		verify(taskRepository, never()).save(any());
+	}
+
+	@Test
+	void abandonedInsertIsNotRetriedAfterTheBatchFails() throws Exception {
+		coalescer.maxBatch = 1;
+		coalescer.timeoutMs = 100;
+		var release = new CountDownLatch(1);
+		when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			release.await();
+			throw new DataIntegrityViolationException("lote inválido");
+		});
+		coalescer.start();
+
+		// Já no lote, quem chamou desiste depois do tempo limite mais o timeout da transação (1 s)
+		var abandoned = task("a");
+		assertThrows(IllegalStateException.class, () -> coalescer.save(abandoned));
+		release.countDown();
+
+		verify(taskRepository, after(500).never()).save(any());
+		verify(taskRepository, times(1)).saveAll(anyList());
+	}
+
+	@Test
+	void timeoutBeforeTheBatchStartsWritesNothing() throws Exception {
+		coalescer.maxBatch = 1;
+		coalescer.timeoutMs = 300;
+		var writing = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<Task> tasks = invocation.getArgument(0);
+			synchronized (batches) {
+				batches.add(List.copyOf(tasks));
+			}
+			writing.countDown();
+			release.await();
+			tasks.forEach(task -> task.setId(ids.incrementAndGet()));
+			return tasks;
+		});
+		coalescer.start();
+
+		// A primeira tarefa prende a thread de gravação; a segunda fica na fila até desistir
+		var first = submit(task("a"));
+		assertTrue(writing.await(5, TimeUnit.SECONDS));
+		var waiting = task("b");
+		var error = assertThrows(ResponseStatusException.class, () -> coalescer.save(waiting));
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatusCode());
+
+		// Quem já está em um lote continua esperando o commit além do tempo limite
+		release.countDown();
+		assertNotNull(first.join().getId());
+		coalescer.stop();
+
+		assertEquals(1, batches.size());
+		assertEquals("a", batches.get(0).get(0).getTitle());
+		assertNull(waiting.getId());
+		verify(taskRepository, never()).save(any());
+	}
+
+	@Test
+	void disabledWritesDirectly() {
+		coalescer.enabled = false;
+		var task = task("a");
+		when(taskRepository.save(task)).thenReturn(task);
+		coalescer.start();
+
+		assertSame(task, coalescer.save(task));
+		verify(taskRepository, never()).saveAll(anyList());
+		verify(transactionManager, never()).getTransaction(any());
+	}
+
+	private CompletableFuture<Task> submit(Task task) {
+		return CompletableFuture.supplyAsync(() -> coalescer.save(task), callers);
+	}
+
+	private static Task task(String title) {
+		return Task.builder().title(title).status("PENDENTE").build();
+	}
+}